@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# 测量从启动 JVM 到第一个请求成功响应的耗时（毫秒），用于对比普通 jar / AOT / AOT + AppCDS
+#
+# 用法：scripts/measure-startup.sh [轮数] -- <java 参数...>
+#   scripts/measure-startup.sh 5 -- -jar target/foxblog-0.0.1-SNAPSHOT.jar
+#   scripts/measure-startup.sh 5 -- -Dspring.aot.enabled=true -jar target/foxblog-0.0.1-SNAPSHOT.jar
+#   (cd target/app && ../../scripts/measure-startup.sh 5 -- -XX:SharedArchiveFile=foxblog.jsa \
+#       -Dspring.aot.enabled=true -jar foxblog-0.0.1-SNAPSHOT.jar)
+#
+# 应用启动时会校验数据库表结构，需要能连上配置中的数据库（可追加 --spring.datasource.* 参数）
+# 环境变量：PORT（默认 18080）、URL（默认 /actuator/health/liveness）、TIMEOUT_SECONDS（默认 120）
+set -euo pipefail
+
+runs=1
+if [[ $# -gt 0 && "$1" != "--" ]]; then
+  runs="$1"
+  shift
+fi
+if [[ "${1:-}" != "--" || $# -lt 2 ]]; then
+  sed -n '2,11p' "$0" >&2
+  exit 2
+fi
+shift
+
+port="${PORT:-18080}"
+url="http://127.0.0.1:${port}${URL:-/actuator/health/liveness}"
+timeout="${TIMEOUT_SECONDS:-120}"
+log="$(mktemp -t foxblog-startup.XXXXXX)"
+pid=""
+
+cleanup() {
+  if [[ -n "$pid" ]] && kill -0 "$pid" 2>/dev/null; then
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+  fi
+}
+trap cleanup EXIT
+
+now_ms() {
+  date +%s%3N
+}
+
+total=0
+for ((i = 1; i <= runs; i++)); do
+  start="$(now_ms)"
+  java "$@" --server.port="$port" >"$log" 2>&1 &
+  pid=$!
+  deadline=$((start + timeout * 1000))
+  until curl -fs -o /dev/null "$url"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "进程提前退出，日志：$log" >&2
+      tail -n 20 "$log" >&2
+      exit 1
+    fi
+    if (( $(now_ms) > deadline )); then
+      echo "超过 ${timeout}s 仍无响应，日志：$log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( $(now_ms) - start ))
+  started="$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | head -n 1 || true)"
+  printf 'run %d: first response %6d ms  (%s)\n' "$i" "$elapsed" "${started:-no startup log line}"
+  total=$((total + elapsed))
+  cleanup
+  pid=""
+done
+
+if (( runs > 1 )); then
+  printf 'average: %d ms over %d runs\n' $((total / runs)) "$runs"
+fi
+rm -f "$log"
@@ -0,0 +1,58 @@
+package com.foxsoftware.foxblog.config;
+
+import com.foxsoftware.foxblog.dto.auth.*;
+import com.foxsoftware.foxblog.dto.media.*;
+import com.foxsoftware.foxblog.dto.post.*;
+import com.foxsoftware.foxblog.dto.tag.*;
+import com.foxsoftware.foxblog.entity.*;
+import com.foxsoftware.foxblog.exception.ApiErrorResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * AOT 运行时提示（-Pfast-startup）
+ *  - DTO：Jackson 序列化 / 反序列化所需的反射（含嵌套类型，如 PostDetailResponse.MediaItem）
+ *  - 实体：Hibernate 通过反射读写字段与无参构造
+ *  - 资源：PEM 密钥与迁移脚本
+ * JVM 上运行 AOT 产物时反射本身不受限，这些提示保证处理结果完整，也为将来 native 镜像做准备。
+ */
+@Configuration
+@ImportRuntimeHints(AotHintsConfig.Hints.class)
+public class AotHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] DTO_TYPES = {
+                ConfirmTotpRequest.class, InitiateLoginResponse.class, JwtResponse.class,
+                LoginRequest.class, RefreshTokenRequest.class, VerifyOtpRequest.class,
+                LayoutMigrationResult.class, MediaBatchUploadResponse.class, MediaUploadResponse.class,
+                UploadSessionCreateRequest.class, UploadSessionResponse.class,
+                PostCreateRequest.class, PostDetailResponse.class, PostListItemResponse.class, PostUpdateRequest.class,
+                TagCreateRequest.class, TagResponse.class, TagUpdateRequest.class,
+                ApiErrorResponse.class
+        };
+
+        private static final Class<?>[] ENTITY_TYPES = {
+                AdminAuth.class, AuthChallenge.class, Media.class, MediaVariant.class, Post.class,
+                PostMedia.class, PostMediaId.class, RefreshToken.class, RevokedToken.class, Tag.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTO_TYPES);
+            for (Class<?> entity : ENTITY_TYPES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.resources()
+                    .registerPattern("jwt/*.pem")
+                    .registerPattern("db/migration/*.sql");
+        }
+    }
+}
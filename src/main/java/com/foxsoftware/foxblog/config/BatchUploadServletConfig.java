@@ -0,0 +1,41 @@
+package com.foxsoftware.foxblog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * 批量上传单独挂一个 DispatcherServlet（共用同一个 WebApplicationContext，控制器 / 过滤器不变），
+ * 只有它使用 app.media.batch.* 的大上限；其余接口仍按 spring.servlet.multipart.* 的较小上限解析
+ * 上限由 Servlet 容器按 Servlet 注册生效，无法在同一个 DispatcherServlet 内按路径区分
+ */
+@Configuration
+public class BatchUploadServletConfig {
+
+    static final String BATCH_UPLOAD_PATH = "/api/admin/media/upload/batch";
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> batchUploadServlet(
+            WebApplicationContext context,
+            MultipartProperties multipart,
+            @Value("${app.media.batch.max-file-size:50MB}") DataSize maxFileSize,
+            @Value("${app.media.batch.max-request-size:512MB}") DataSize maxRequestSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), BATCH_UPLOAD_PATH);
+        registration.setName("batchUploadDispatcherServlet");
+        registration.setLoadOnStartup(1);
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(multipart.getLocation());
+        factory.setFileSizeThreshold(multipart.getFileSizeThreshold());
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(maxRequestSize);
+        registration.setMultipartConfig(factory.createMultipartConfig());
+        return registration;
+    }
+}
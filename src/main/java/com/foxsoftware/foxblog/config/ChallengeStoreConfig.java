@@ -0,0 +1,37 @@
+package com.foxsoftware.foxblog.config;
+
+import com.foxsoftware.foxblog.repository.AuthChallengeRepository;
+import com.foxsoftware.foxblog.service.auth.ChallengeStore;
+import com.foxsoftware.foxblog.service.auth.DatabaseChallengeStore;
+import com.foxsoftware.foxblog.service.auth.InMemoryChallengeStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 登录挑战存储装配
+ *  - 默认 memory：单实例内存
+ *  - security.login.challenge-store=database：auth_challenge 表，多实例共享
+ */
+@Configuration
+public class ChallengeStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "security.login", name = "challenge-store", havingValue = "memory", matchIfMissing = true)
+    public ChallengeStore inMemoryChallengeStore(@Value("${security.login.challenge-capacity:10000}") int capacity,
+                                                 MeterRegistry meterRegistry) {
+        return new InMemoryChallengeStore(capacity, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "security.login", name = "challenge-store", havingValue = "database")
+    public ChallengeStore databaseChallengeStore(AuthChallengeRepository repository,
+                                                 @Value("${security.login.challenge-capacity:10000}") int capacity,
+                                                 @Value("${security.login.challenge-delete-batch:500}") int deleteBatchSize,
+                                                 @Value("${security.login.challenge-count-refresh-ms:5000}") long countRefreshMillis,
+                                                 MeterRegistry meterRegistry) {
+        return new DatabaseChallengeStore(repository, capacity, deleteBatchSize, countRefreshMillis, meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.foxsoftware.foxblog.config;
+
+import com.foxsoftware.foxblog.storage.LocalFileSystemStorage;
+import com.foxsoftware.foxblog.storage.MediaLayout;
+import com.foxsoftware.foxblog.storage.MediaStorage;
+import com.foxsoftware.foxblog.storage.TieredMediaStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 媒体存储装配
+ *  - 默认：app.media.root 单层本地目录
+ *  - app.media.tier.enabled=true：app.media.root 作为慢速层（网络盘），app.media.tier.cache-dir 作为本地 SSD 缓存层
+ */
+@Configuration
+public class MediaStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.media.tier", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public MediaStorage mediaStorage(@Value("${app.media.root:media}") String rootDir,
+                                     @Value("${app.media.layout:dated}") MediaLayout layout) {
+        return new LocalFileSystemStorage(rootDir, layout);
+    }
+
+    @Bean(initMethod = "init", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.media.tier", name = "enabled", havingValue = "true")
+    public TieredMediaStorage tieredMediaStorage(@Value("${app.media.root:media}") String rootDir,
+                                                 @Value("${app.media.layout:dated}") MediaLayout layout,
+                                                 @Value("${app.media.tier.cache-dir:media-cache}") String cacheDir,
+                                                 @Value("${app.media.tier.max-bytes:10737418240}") long maxBytes,
+                                                 @Value("${app.media.tier.write-behind-threads:2}") int threads,
+                                                 @Value("${app.media.tier.write-behind-queue:1000}") int queueCapacity,
+                                                 @Value("${app.media.tier.read-lease-seconds:60}") long readLeaseSeconds) {
+        return new TieredMediaStorage(
+                new LocalFileSystemStorage(cacheDir, layout),
+                new LocalFileSystemStorage(rootDir, layout),
+                maxBytes, threads, queueCapacity, readLeaseSeconds);
+    }
+}
@@ -2,6 +2,7 @@ package com.foxsoftware.foxblog.config;
 
 import com.foxsoftware.foxblog.security.JwtAuthenticationFilter;
 import com.foxsoftware.foxblog.security.ProductionJwtProvider;
+import com.foxsoftware.foxblog.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,28 +14,50 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    // 匿名可访问的路径：放行，且 JwtAuthenticationFilter 完全跳过（不解析 Authorization）
+    private static final String[] PUBLIC_PATHS = {
+            "/api/admin/login",
+            "/api/admin/2fa/**",
+            "/api/admin/token/refresh",
+            "/api/public/**",
+            "/.well-known/**",
+            "/actuator/health/**"
+    };
+
     private final ProductionJwtProvider jwtProvider;
+    private final TokenRevocationList revocationList;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(reg -> reg
-                        .requestMatchers("/api/admin/login",
-                                "/api/admin/2fa/**").permitAll()
-                        .requestMatchers("/api/public/**").permitAll()
+                        // 显式的 Ant 匹配器：存在多个 DispatcherServlet 注册（批量上传）时，字符串形式无法判断该用哪个 Servlet 的路径
+                        .requestMatchers(publicPaths()).permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtProvider), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtProvider, revocationList, publicPaths()),
+                        UsernamePasswordAuthenticationFilter.class)
                 .httpBasic(Customizer.withDefaults());
         return http.build();
     }
 
+    private static RequestMatcher publicPaths() {
+        return new OrRequestMatcher(Arrays.stream(PUBLIC_PATHS)
+                .map(p -> (RequestMatcher) new AntPathRequestMatcher(p))
+                .toList());
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration cfg) throws Exception {
         return cfg.getAuthenticationManager();
@@ -0,0 +1,80 @@
+package com.foxsoftware.foxblog.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟线程钉住诊断（仅 spring.threads.virtual.enabled=true 时启用）
+ *  - 进程内 JFR 流订阅 jdk.VirtualThreadPinned（在 synchronized 内阻塞、native 帧等导致载体线程被占用）
+ *  - 超过阈值的事件打 WARN 日志（附栈顶若干帧）并计入 jvm.threads.virtual.pinned
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.diagnostics.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("钉住载体线程超过阈值的次数")
+                .register(meterRegistry);
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", e -> {
+            pinned.increment();
+            log.warn("[VT] virtual thread pinned {}ms on {}\n{}", e.getDuration().toMillis(), threadName(e), frames(e));
+        });
+        stream.startAsync();
+        log.info("[VT] pinning monitor started threshold={}ms", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+
+    // 虚拟线程多数没有名字，退回线程 id
+    private static String threadName(RecordedEvent e) {
+        if (e.getThread() == null) return "?";
+        String name = e.getThread().getJavaName();
+        return name == null || name.isEmpty() ? "#" + e.getThread().getJavaThreadId() : name;
+    }
+
+    private static String frames(RecordedEvent e) {
+        RecordedStackTrace st = e.getStackTrace();
+        if (st == null) return "  (no stack trace)";
+        List<RecordedFrame> frames = st.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(f -> "  at " + f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
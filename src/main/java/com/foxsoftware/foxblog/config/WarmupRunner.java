@@ -0,0 +1,139 @@
+package com.foxsoftware.foxblog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foxsoftware.foxblog.dto.post.PostDetailResponse;
+import com.foxsoftware.foxblog.dto.post.PostListItemResponse;
+import com.foxsoftware.foxblog.security.ProductionJwtProvider;
+import com.foxsoftware.foxblog.service.post.PostService;
+import com.foxsoftware.foxblog.service.post.PublicPostCache;
+import com.foxsoftware.foxblog.util.MarkdownRenderer;
+import com.foxsoftware.foxblog.util.TotpUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动预热：在就绪（readiness = ACCEPTING_TRAFFIC）之前执行一批有代表性的调用
+ *  - Markdown 渲染 + HTML 清洗（flexmark / OWASP sanitizer 类加载与 JIT）
+ *  - 公开列表 / 置顶 / 详情查询（Hibernate 查询计划、PostMapper、Jackson 序列化器）
+ *  - JWT 签发与验签、JWKS、TOTP 校验
+ *  - 结束后预填充公开帖子响应缓存（首页列表、置顶、首页详情）
+ * ApplicationRunner 在 Spring Boot 发布 ACCEPTING_TRAFFIC 之前运行，预热期间 /actuator/health/readiness 为 OUT_OF_SERVICE。
+ * 按轮次重复，总耗时不超过 max-millis；任何一步失败只记录日志，不影响启动。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String SAMPLE_MARKDOWN = """
+            # 标题
+
+            一段包含 **粗体**、*斜体*、`行内代码` 与 [链接](https://example.com) 的文字。
+
+            - 列表项 1
+            - 列表项 2
+
+            > 引用
+
+            ```java
+            System.out.println("warmup");
+            ```
+
+            ![图片](https://example.com/a.png)
+            """;
+
+    private final MarkdownRenderer markdownRenderer;
+    private final PostService postService;
+    private final PublicPostCache publicPostCache;
+    private final ProductionJwtProvider jwtProvider;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${app.warmup.max-millis:15000}")
+    private long maxMillis;
+
+    @Value("${app.warmup.page-size:20}")
+    private int pageSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String totpSecret = TotpUtils.generateBase32Secret(20);
+
+        // 失败过的步骤后续轮次跳过（如数据库暂不可用），避免拖满整个预热时间、刷屏日志
+        Set<String> failed = new HashSet<>();
+        int rounds = 0;
+        while (rounds < iterations && System.nanoTime() < deadline) {
+            step(failed, "markdown", () -> markdownRenderer.render(SAMPLE_MARKDOWN));
+            step(failed, "jwt", this::warmJwt);
+            step(failed, "totp", () -> TotpUtils.validateCode(totpSecret, "000000", 1));
+            step(failed, "posts", () -> readOnly.executeWithoutResult(s -> warmPosts()));
+            rounds++;
+        }
+        step(failed, "public-cache", () -> readOnly.executeWithoutResult(s -> publicPostCache.prepopulate(pageSize)));
+        log.info("[WARMUP] completed rounds={} elapsed={}ms failed={}",
+                rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed);
+    }
+
+    // ========== 预热步骤 ==========
+
+    private void warmJwt() throws Exception {
+        Instant now = Instant.now();
+        String token = jwtProvider.generateToken("warmup", now, now.plusSeconds(60), List.of("WARMUP"));
+        jwtProvider.parseAndValidate(token);
+        jwtProvider.jwks();
+    }
+
+    private void warmPosts() {
+        try {
+            Page<PostListItemResponse> page = postService.listPublic(PageRequest.of(0, pageSize), null, null);
+            objectMapper.writeValueAsBytes(page.getContent());
+            objectMapper.writeValueAsBytes(postService.listPinned());
+            for (PostListItemResponse item : page.getContent()) {
+                PostDetailResponse detail = postService.findDetail(item.getId(), false);
+                objectMapper.writeValueAsBytes(detail);
+            }
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void step(Set<String> failed, String name, Step step) {
+        if (failed.contains(name)) return;
+        try {
+            step.run();
+        } catch (Exception e) {
+            failed.add(name);
+            log.warn("[WARMUP] step {} failed, skipped from now on: {}", name, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
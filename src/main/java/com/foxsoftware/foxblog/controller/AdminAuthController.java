@@ -1,9 +1,15 @@
 package com.foxsoftware.foxblog.controller;
 
 import com.foxsoftware.foxblog.dto.auth.*;
+import com.foxsoftware.foxblog.security.ProductionJwtProvider.VerifiedToken;
+import com.foxsoftware.foxblog.security.TokenRevocationList;
 import com.foxsoftware.foxblog.service.AdminAuthService;
+import com.foxsoftware.foxblog.service.RefreshTokenService;
+import com.foxsoftware.foxblog.service.auth.ClientIpResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -12,6 +18,9 @@ import org.springframework.web.bind.annotation.*;
 public class AdminAuthController {
 
     private final AdminAuthService authService;
+    private final TokenRevocationList revocationList;
+    private final RefreshTokenService refreshTokenService;
+    private final ClientIpResolver clientIpResolver;
 
     /**
      * 第一步：用户名 + 密码 登录
@@ -21,8 +30,8 @@ public class AdminAuthController {
      */
     @PostMapping("/login")
     public ResponseEntity<InitiateLoginResponse> login(@RequestBody LoginRequest req,
-                                                       @RequestHeader(value = "X-Real-IP", required = false) String ip) {
-        var result = authService.initiateLogin(req.getUsername(), req.getPassword(), ip);
+                                                       HttpServletRequest request) {
+        var result = authService.initiateLogin(req.getUsername(), req.getPassword(), clientIpResolver.resolve(request));
         return ResponseEntity.ok(
                 InitiateLoginResponse.builder()
                         .status(result.getStatus().name())
@@ -38,16 +47,9 @@ public class AdminAuthController {
      */
     @PostMapping("/2fa/confirm-setup")
     public ResponseEntity<JwtResponse> confirmSetup(@RequestBody ConfirmTotpRequest req,
-                                                    @RequestHeader(value = "X-Real-IP", required = false) String ip) {
-        var jwt = authService.confirmSetup(req.getChallengeId(), req.getOtp(), ip);
-        return ResponseEntity.ok(
-                JwtResponse.builder()
-                        .token(jwt.getToken())
-                        .issuedAt(jwt.getIssuedAt())
-                        .expiresAt(jwt.getExpiresAt())
-                        .username(jwt.getUsername())
-                        .build()
-        );
+                                                    HttpServletRequest request) {
+        var jwt = authService.confirmSetup(req.getChallengeId(), req.getOtp(), clientIpResolver.resolve(request));
+        return ResponseEntity.ok(toResponse(jwt));
     }
 
     /**
@@ -55,15 +57,44 @@ public class AdminAuthController {
      */
     @PostMapping("/2fa/verify")
     public ResponseEntity<JwtResponse> verifyOtp(@RequestBody VerifyOtpRequest req,
-                                                 @RequestHeader(value = "X-Real-IP", required = false) String ip) {
-        var jwt = authService.verifyOtp(req.getChallengeId(), req.getOtp(), ip);
-        return ResponseEntity.ok(
-                JwtResponse.builder()
-                        .token(jwt.getToken())
-                        .issuedAt(jwt.getIssuedAt())
-                        .expiresAt(jwt.getExpiresAt())
-                        .username(jwt.getUsername())
-                        .build()
-        );
+                                                 HttpServletRequest request) {
+        var jwt = authService.verifyOtp(req.getChallengeId(), req.getOtp(), clientIpResolver.resolve(request));
+        return ResponseEntity.ok(toResponse(jwt));
+    }
+
+    /**
+     * 用刷新令牌换新的访问令牌 + 刷新令牌（旧刷新令牌随即作废）
+     */
+    @PostMapping("/token/refresh")
+    public ResponseEntity<JwtResponse> refresh(@RequestBody RefreshTokenRequest req,
+                                               HttpServletRequest request) {
+        var jwt = authService.refresh(req.getRefreshToken(), clientIpResolver.resolve(request));
+        return ResponseEntity.ok(toResponse(jwt));
+    }
+
+    /**
+     * 登出：吊销当前访问令牌（按 jti，直到其原过期时间）；带上刷新令牌时整条令牌链一并作废
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestBody(required = false) RefreshTokenRequest req) {
+        if (authentication != null && authentication.getDetails() instanceof VerifiedToken vt) {
+            revocationList.revoke(vt.getJti(), vt.getSubject(), vt.getExpiresAt(), "logout");
+        }
+        if (req != null) {
+            refreshTokenService.revoke(req.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private JwtResponse toResponse(AdminAuthService.JwtResult jwt) {
+        return JwtResponse.builder()
+                .token(jwt.getToken())
+                .issuedAt(jwt.getIssuedAt())
+                .expiresAt(jwt.getExpiresAt())
+                .username(jwt.getUsername())
+                .refreshToken(jwt.getRefreshToken())
+                .refreshExpiresAt(jwt.getRefreshExpiresAt())
+                .build();
     }
 }
\ No newline at end of file
@@ -1,13 +1,25 @@
 package com.foxsoftware.foxblog.controller;
 
+import com.foxsoftware.foxblog.dto.media.LayoutMigrationResult;
+import com.foxsoftware.foxblog.dto.media.MediaBatchUploadResponse;
 import com.foxsoftware.foxblog.dto.media.MediaUploadResponse;
+import com.foxsoftware.foxblog.dto.media.UploadSessionCreateRequest;
+import com.foxsoftware.foxblog.dto.media.UploadSessionResponse;
+import com.foxsoftware.foxblog.service.media.ChunkedUploadService;
+import com.foxsoftware.foxblog.service.media.MediaBatchUploadService;
+import com.foxsoftware.foxblog.service.media.MediaLayoutMigrationService;
 import com.foxsoftware.foxblog.service.media.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * 媒体上传控制器
  */
@@ -17,9 +29,61 @@ import org.springframework.web.multipart.MultipartFile;
 public class AdminMediaController {
 
     private final MediaService mediaService;
+    private final MediaLayoutMigrationService layoutMigrationService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final MediaBatchUploadService batchUploadService;
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<MediaUploadResponse> upload(@RequestParam("file") MultipartFile file) {
         return ResponseEntity.ok(mediaService.upload(file));
     }
+
+    /**
+     * 多文件上传：同名字段 files 重复多次，逐个返回结果（部分失败仍为 200）
+     */
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MediaBatchUploadResponse> uploadBatch(@RequestParam("files") List<MultipartFile> files) {
+        return ResponseEntity.ok(batchUploadService.uploadAll(files));
+    }
+
+    // ========== 分片上传（断点续传） ==========
+
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessionResponse> createUpload(@RequestBody UploadSessionCreateRequest req) {
+        return ResponseEntity.ok(chunkedUploadService.create(req));
+    }
+
+    @GetMapping("/uploads/{sessionId}")
+    public ResponseEntity<UploadSessionResponse> uploadStatus(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(chunkedUploadService.status(sessionId));
+    }
+
+    /**
+     * 请求体为分片原始字节（application/octet-stream），不同分片可并行上传
+     */
+    @PutMapping("/uploads/{sessionId}")
+    public ResponseEntity<UploadSessionResponse> uploadChunk(@PathVariable UUID sessionId,
+                                                             @RequestParam long offset,
+                                                             HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(chunkedUploadService.writeChunk(sessionId, offset, request.getInputStream()));
+    }
+
+    @PostMapping("/uploads/{sessionId}/complete")
+    public ResponseEntity<MediaUploadResponse> completeUpload(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(chunkedUploadService.complete(sessionId));
+    }
+
+    @DeleteMapping("/uploads/{sessionId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable UUID sessionId) {
+        chunkedUploadService.abort(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 将历史 DATED 布局的文件迁入 CAS（需 app.media.layout=cas）
+     */
+    @PostMapping("/migrate-layout")
+    public ResponseEntity<LayoutMigrationResult> migrateLayout(@RequestParam(defaultValue = "200") int batchSize) {
+        return ResponseEntity.ok(layoutMigrationService.migrateToCas(batchSize));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.foxsoftware.foxblog.controller;
+
+import com.foxsoftware.foxblog.security.JwtSecurityProperties;
+import com.foxsoftware.foxblog.security.ProductionJwtProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * 公钥发布：边缘代理 / 兄弟服务据此本地验证管理端 token
+ * 文档在密钥加载时已生成，这里只做 ETag 协商与输出。
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+
+    private final ProductionJwtProvider jwtProvider;
+    private final JwtSecurityProperties props;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductionJwtProvider.Jwks jwks = jwtProvider.jwks();
+        CacheControl cache = CacheControl.maxAge(Duration.ofSeconds(props.getJwksMaxAgeSeconds())).cachePublic();
+        if (ifNoneMatch != null && ifNoneMatch.contains(jwks.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwks.getEtag())
+                    .cacheControl(cache)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(jwks.getEtag())
+                .cacheControl(cache)
+                .contentType(JWK_SET)
+                .body(jwks.getJson());
+    }
+}
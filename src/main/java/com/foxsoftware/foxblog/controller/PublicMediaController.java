@@ -0,0 +1,240 @@
+package com.foxsoftware.foxblog.controller;
+
+import com.foxsoftware.foxblog.dto.media.MediaContent;
+import com.foxsoftware.foxblog.exception.BusinessException;
+import com.foxsoftware.foxblog.exception.ErrorCode;
+import com.foxsoftware.foxblog.service.media.MediaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 公开媒体分发
+ *  - 单段 / 多段 Range（视频拖动），多段按起点合并重叠 / 相邻区段
+ *  - sha256 作为强 ETag，配合 immutable 长缓存
+ *  - 单段响应优先交给 Tomcat sendfile；其余走 FileChannel.transferTo，不经过堆内缓冲
+ *  - ?w=640 返回不小于该宽度的衍生图（按 Accept 协商 webp / jpeg），无合适档位时返回原图
+ */
+@RestController
+@RequestMapping("/api/public/media")
+@RequiredArgsConstructor
+public class PublicMediaController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String CRLF = "\r\n";
+
+    private final MediaService mediaService;
+
+    @Value("${app.media.serve.max-age-seconds:31536000}")
+    private long maxAgeSeconds;
+
+    @Value("${app.media.serve.sendfile:true}")
+    private boolean sendfileEnabled;
+
+    @GetMapping("/{id}")
+    public void serve(@PathVariable String id,
+                      @RequestParam(value = "w", required = false) Integer width,
+                      HttpServletRequest req,
+                      HttpServletResponse resp) throws IOException {
+        String accept = req.getHeader(HttpHeaders.ACCEPT);
+        boolean acceptWebp = accept != null && accept.contains("image/webp");
+        MediaContent media = mediaService.locate(parseId(id), width, acceptWebp);
+        if (width != null) {
+            resp.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String etag = media.getSha256() == null ? null : "\"" + media.getSha256() + "\"";
+        String contentType = media.getMimeType() != null ? media.getMimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        boolean headOnly = HttpMethod.HEAD.matches(req.getMethod());
+
+        try (FileChannel ch = FileChannel.open(media.getPath(), StandardOpenOption.READ)) {
+            long length = ch.size();
+            resp.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            resp.setHeader(HttpHeaders.CACHE_CONTROL, media.isImmutable()
+                    ? "public, max-age=" + maxAgeSeconds + ", immutable"
+                    : "public, max-age=60");
+            if (etag != null) {
+                resp.setHeader(HttpHeaders.ETAG, etag);
+                if (matchesEtag(req.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                    resp.setStatus(HttpStatus.NOT_MODIFIED.value());
+                    return;
+                }
+            }
+
+            List<long[]> ranges;
+            try {
+                ranges = resolveRanges(req.getHeader(HttpHeaders.RANGE), req.getHeader(HttpHeaders.IF_RANGE), etag, length);
+            } catch (IllegalArgumentException e) {
+                resp.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                resp.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+
+            if (ranges.isEmpty()) {
+                resp.setStatus(HttpStatus.OK.value());
+                resp.setContentType(contentType);
+                resp.setContentLengthLong(length);
+                if (!headOnly) sendRegion(req, resp, ch, media, 0, length);
+            } else if (ranges.size() == 1) {
+                long start = ranges.get(0)[0];
+                long end = ranges.get(0)[1];
+                resp.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                resp.setContentType(contentType);
+                resp.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                resp.setContentLengthLong(end - start + 1);
+                if (!headOnly) sendRegion(req, resp, ch, media, start, end - start + 1);
+            } else {
+                sendMultipart(resp, ch, ranges, contentType, length, headOnly);
+            }
+        }
+    }
+
+    // ========== Range ==========
+
+    /**
+     * 解析 Range / If-Range；返回按起点排序、已合并重叠与相邻区段的闭区间 [start, end] 列表，
+     * 空列表表示返回整个文件
+     *  - 请求区段长度之和超过文件长度（大量重叠的放大请求）时直接返回整个文件
+     *  - 格式错误或没有可满足区段时抛 IllegalArgumentException（416）
+     */
+    static List<long[]> resolveRanges(String rangeHeader, String ifRange, String etag, long length) {
+        if (rangeHeader == null || rangeHeader.isBlank()) return List.of();
+        if (ifRange != null && (etag == null || !ifRange.trim().equals(etag))) {
+            // If-Range 不匹配（或是日期形式）时按 RFC 9110 返回完整内容
+            return List.of();
+        }
+        List<long[]> requested = new ArrayList<>();
+        long requestedBytes = 0;
+        for (HttpRange r : HttpRange.parseRanges(rangeHeader)) {
+            long start = r.getRangeStart(length);
+            long end = r.getRangeEnd(length);
+            // 起点不小于文件长度的区段不可满足，忽略；全部不可满足时 416
+            if (start >= length || end < start) continue;
+            requested.add(new long[]{start, end});
+            requestedBytes += end - start + 1;
+        }
+        if (requested.isEmpty()) throw new IllegalArgumentException("No satisfiable range");
+        if (requestedBytes > length) return List.of();
+
+        requested.sort(Comparator.comparingLong(r -> r[0]));
+        List<long[]> merged = new ArrayList<>(requested.size());
+        long[] current = requested.get(0);
+        for (int i = 1; i < requested.size(); i++) {
+            long[] next = requested.get(i);
+            if (next[0] <= current[1] + 1) {
+                current = new long[]{current[0], Math.max(current[1], next[1])};
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    private void sendMultipart(HttpServletResponse resp,
+                               FileChannel ch,
+                               List<long[]> ranges,
+                               String contentType,
+                               long length,
+                               boolean headOnly) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (long[] r : ranges) {
+            byte[] h = (CRLF + "--" + boundary + CRLF +
+                    HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF +
+                    HttpHeaders.CONTENT_RANGE + ": bytes " + r[0] + "-" + r[1] + "/" + length + CRLF + CRLF)
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(h);
+            total += h.length + (r[1] - r[0] + 1);
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        total += closing.length;
+
+        resp.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        resp.setContentType("multipart/byteranges; boundary=" + boundary);
+        resp.setContentLengthLong(total);
+        if (headOnly) return;
+
+        OutputStream os = resp.getOutputStream();
+        WritableByteChannel out = Channels.newChannel(os);
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] r = ranges.get(i);
+            os.write(partHeaders.get(i));
+            transfer(ch, r[0], r[1] - r[0] + 1, out);
+        }
+        os.write(closing);
+    }
+
+    // ========== 传输 ==========
+
+    private void sendRegion(HttpServletRequest req,
+                            HttpServletResponse resp,
+                            FileChannel ch,
+                            MediaContent media,
+                            long start,
+                            long count) throws IOException {
+        if (count == 0) return;
+        if (sendfileEnabled && Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+            // 交由 Tomcat 在 servlet 返回后执行 sendfile
+            req.setAttribute(SENDFILE_FILENAME, media.getPath().toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        transfer(ch, start, count, Channels.newChannel(resp.getOutputStream()));
+    }
+
+    private void transfer(FileChannel ch, long position, long count, WritableByteChannel out) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long n = ch.transferTo(position, end - position, out);
+            if (n <= 0) {
+                throw new EOFException("媒体文件在传输过程中被截断");
+            }
+            position += n;
+        }
+    }
+
+    // ========== Helper ==========
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag) || c.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
+
+    private UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.of(ErrorCode.MEDIA_NOT_FOUND, "媒体不存在: " + id);
+        }
+    }
+}
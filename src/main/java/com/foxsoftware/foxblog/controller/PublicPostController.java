@@ -0,0 +1,72 @@
+package com.foxsoftware.foxblog.controller;
+
+import com.foxsoftware.foxblog.service.post.PublicPostCache;
+import com.foxsoftware.foxblog.service.post.PublicPostCache.CachedJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 公开帖子接口（匿名访问，只返回 PUBLIC 内容）
+ * 响应体是 PublicPostCache 中已序列化的字节，直接写出；客户端接受 gzip 时返回预压缩副本
+ */
+@RestController
+@RequestMapping("/api/public/posts")
+@RequiredArgsConstructor
+public class PublicPostController {
+
+    private final PublicPostCache cache;
+
+    @Value("${app.public-cache.max-page-size:50}")
+    private int maxPageSize;
+
+    @GetMapping
+    public ResponseEntity<byte[]> list(@RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "20") int size,
+                                       @RequestParam(required = false) String tag,
+                                       @RequestParam(required = false) String keyword,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        int p = Math.max(0, page);
+        int s = Math.min(Math.max(1, size), maxPageSize);
+        return write(cache.list(p, s, tag, keyword), acceptEncoding);
+    }
+
+    @GetMapping("/pinned")
+    public ResponseEntity<byte[]> pinned(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return write(cache.pinned(), acceptEncoding);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> detail(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return write(cache.detail(id), acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> write(CachedJson body, String acceptEncoding) {
+        boolean gzip = body.hasGzip() && acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? body.gzip() : body.json();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(bytes);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            // gzip;q=0 表示明确拒绝
+            return tokens.length < 2 || !tokens[1].trim().matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+}
@@ -12,4 +12,7 @@ public class JwtResponse {
     Instant issuedAt;
     Instant expiresAt;
     String username;
+    // 刷新令牌（轮换制，每次刷新后旧值作废）
+    String refreshToken;
+    Instant refreshExpiresAt;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.foxsoftware.foxblog.dto.auth;
+
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
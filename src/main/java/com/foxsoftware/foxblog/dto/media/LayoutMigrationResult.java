@@ -0,0 +1,13 @@
+package com.foxsoftware.foxblog.dto.media;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class LayoutMigrationResult {
+    int batches;
+    long scanned;
+    long migrated;
+    long failed;
+}
@@ -0,0 +1,26 @@
+package com.foxsoftware.foxblog.dto.media;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class MediaBatchUploadResponse {
+    int succeeded;
+    int failed;
+    // 与请求中的文件顺序一致
+    List<Item> items;
+
+    @Value
+    @Builder
+    public static class Item {
+        int index;
+        String fileName;
+        // 成功时非空（reused 表示命中已有内容）
+        MediaUploadResponse media;
+        // 失败原因，成功时为 null
+        String error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.foxsoftware.foxblog.dto.media;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * 对外分发用的媒体定位信息（不含文件内容）
+ */
+@Value
+@Builder
+public class MediaContent {
+    Path path;
+    String mimeType;
+    String sha256;
+    // false 表示是临时回退结果（如衍生图尚未生成），不应长期缓存
+    boolean immutable;
+}
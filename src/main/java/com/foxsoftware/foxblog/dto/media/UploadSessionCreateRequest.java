@@ -0,0 +1,14 @@
+package com.foxsoftware.foxblog.dto.media;
+
+import lombok.Data;
+
+/**
+ * 创建分片上传会话
+ */
+@Data
+public class UploadSessionCreateRequest {
+    private String fileName;
+    private String mimeType;
+    private Long totalSize;  // 必填，字节
+    private Integer chunkSize; // 可选，缺省使用服务端配置
+}
@@ -0,0 +1,19 @@
+package com.foxsoftware.foxblog.dto.media;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@Builder
+public class UploadSessionResponse {
+    String sessionId;
+    long totalSize;
+    int chunkSize;
+    int chunkCount;
+    int receivedChunks;
+    List<Integer> missingChunks; // 断点续传时只需补传这些分片
+    Instant expireAt;
+}
@@ -29,5 +29,11 @@ public class PostDetailResponse {
         Integer position;
         String mimeType;
         Long sizeBytes;
+        // 以下元数据在后台提取完成前为 null
+        Integer width;
+        Integer height;
+        Integer orientation;
+        Long durationMs;
+        String blurhash;
     }
 }
\ No newline at end of file
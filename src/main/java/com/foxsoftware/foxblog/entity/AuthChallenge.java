@@ -0,0 +1,49 @@
+package com.foxsoftware.foxblog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "auth_challenge",
+        indexes = {
+                @Index(name = "idx_challenge_expire", columnList = "expire_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthChallenge {
+
+    // 由应用生成（即返回给客户端的 challengeId）
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(nullable = false, length = 10)
+    private String type;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expire_at", nullable = false)
+    private LocalDateTime expireAt;
+
+    @Column(name = "origin_ip", length = 64)
+    private String originIp;
+
+    // 仅 SETUP：绑定完成前的临时 secret
+    @Column(name = "temp_secret", length = 128)
+    private String tempSecret;
+
+    @Column(nullable = false)
+    private int attempts;
+}
@@ -2,6 +2,7 @@ package com.foxsoftware.foxblog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
@@ -11,10 +12,12 @@ import java.util.UUID;
 @Table(
         name = "media",
         indexes = {
-                @Index(name = "idx_media_hash", columnList = "sha256_hash"),
+                @Index(name = "uk_media_hash", columnList = "sha256_hash", unique = true),
                 @Index(name = "idx_media_created", columnList = "created_at")
         }
 )
+// 只更新变更列：元数据、衍生图状态等由后台任务单独写入，避免实体刷写用旧值覆盖
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +43,40 @@ public class Media {
     @Column(name = "sha256_hash", length = 64)
     private String sha256Hash;
 
+    // 衍生图（缩略图）是否已全部生成
+    @Column(name = "variants_ready", nullable = false)
+    private boolean variantsReady;
+
+    // 被帖子引用的次数，仅由 MediaRepository.adjustRefCount 原子增减（实体刷写不覆盖）；为 0 且超过宽限期的记录会被清理
+    @Column(name = "ref_count", nullable = false, insertable = false, updatable = false)
+    private int refCount;
+
+    // 创建或去重复用的时间（数据库 UTC 时钟），孤儿清理的宽限期从此算起；仅由 MediaRepository.markReferenced 写入
+    @Column(name = "last_referenced_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime lastReferencedAt;
+
+    // ========== 元数据（MediaMetadataService 后台提取，未完成前为空） ==========
+
+    // 显示尺寸，已按 EXIF 方向校正
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    // EXIF 方向 1~8
+    @Column(name = "orientation")
+    private Integer orientation;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "blurhash", length = 64)
+    private String blurhash;
+
+    @Column(name = "metadata_ready", nullable = false)
+    private boolean metadataReady;
+
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
     private LocalDateTime createdAt;
 }
\ No newline at end of file
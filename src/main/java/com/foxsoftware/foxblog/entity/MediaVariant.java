@@ -0,0 +1,54 @@
+package com.foxsoftware.foxblog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "media_variant",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_variant", columnNames = {"media_id", "width", "format"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaVariant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "media_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID mediaId;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    // jpeg / webp
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "storage_path", nullable = false, length = 1024)
+    private String storagePath;
+
+    @Column(name = "mime_type", length = 255)
+    private String mimeType;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "sha256_hash", length = 64)
+    private String sha256Hash;
+
+    @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,57 @@
+package com.foxsoftware.foxblog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "refresh_token",
+        indexes = {
+                @Index(name = "uk_refresh_hash", columnList = "token_hash", unique = true),
+                @Index(name = "idx_refresh_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_expires", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 令牌 SHA-256，原文只返回给客户端一次
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    // 同一次登录轮换出的令牌共享 family，发现重用时整条链作废
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // 整条链的绝对过期时间，轮换不会延长
+    @Column(name = "family_expires_at", nullable = false)
+    private LocalDateTime familyExpiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
@@ -0,0 +1,39 @@
+package com.foxsoftware.foxblog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "revoked_token",
+        indexes = {
+                @Index(name = "idx_revoked_expires", columnList = "expires_at"),
+                @Index(name = "idx_revoked_at", columnList = "revoked_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(length = 50)
+    private String subject;
+
+    // 令牌原过期时间；之后令牌本身已失效，记录可清理
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(length = 32)
+    private String reason;
+}
@@ -9,6 +9,7 @@ public enum ErrorCode {
     POST_NOT_FOUND,
     TAG_NOT_FOUND,
     MEDIA_NOT_FOUND,
+    UPLOAD_SESSION_NOT_FOUND,
     INVALID_REQUEST,
     DUPLICATE_RESOURCE,
     INTERNAL_ERROR,
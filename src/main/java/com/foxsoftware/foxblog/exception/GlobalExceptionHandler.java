@@ -3,6 +3,7 @@ package com.foxsoftware.foxblog.exception;
 import com.foxsoftware.foxblog.service.AdminAuthService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -61,7 +62,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiErrorResponse> handleAuth(AdminAuthService.AuthException ex, HttpServletRequest req) {
         String traceId = UUID.randomUUID().toString();
         log.warn("[AUTH_FAIL] traceId={} code={} {}", traceId, ex.getCode(), ex.getMessage());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatus());
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        }
+        return response
                 .body(ApiErrorResponse.builder()
                         .timestamp(Instant.now())
                         .traceId(traceId)
@@ -75,6 +75,11 @@ public class PostMapper {
                         .position(pm.getPosition())
                         .mimeType(pm.getMedia().getMimeType())
                         .sizeBytes(pm.getMedia().getSizeBytes())
+                        .width(pm.getMedia().getWidth())
+                        .height(pm.getMedia().getHeight())
+                        .orientation(pm.getMedia().getOrientation())
+                        .durationMs(pm.getMedia().getDurationMs())
+                        .blurhash(pm.getMedia().getBlurhash())
                         .build())
                 .toList();
     }
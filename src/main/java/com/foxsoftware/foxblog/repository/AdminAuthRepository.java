@@ -9,4 +9,5 @@ public interface AdminAuthRepository extends JpaRepository<AdminAuth, Long> {
     Optional<AdminAuth> findByUsername(String username);
     Optional<AdminAuth> findByUsernameAndEnabledTrue(String username);
     boolean existsByUsername(String username);
+    boolean existsByIdAndEnabledTrue(Long id);
 }
\ No newline at end of file
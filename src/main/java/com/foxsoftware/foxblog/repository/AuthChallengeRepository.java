@@ -0,0 +1,47 @@
+package com.foxsoftware.foxblog.repository;
+
+import com.foxsoftware.foxblog.entity.AuthChallenge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface AuthChallengeRepository extends JpaRepository<AuthChallenge, UUID> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO auth_challenge (id, admin_id, type, created_at, expire_at, origin_ip, temp_secret, attempts)
+            VALUES (:id, :adminId, :type, :createdAt, :expireAt, :originIp, :tempSecret, 0)
+            """, nativeQuery = true)
+    int insert(byte[] id, Long adminId, String type, LocalDateTime createdAt, LocalDateTime expireAt,
+               String originIp, String tempSecret);
+
+    // 条件更新：次数已用尽时返回 0，多实例并发提交也不会超额
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthChallenge c SET c.attempts = c.attempts + 1 WHERE c.id = :id AND c.attempts < :maxAttempts")
+    int incrementAttempts(UUID id, int maxAttempts);
+
+    @Query("SELECT c.attempts FROM AuthChallenge c WHERE c.id = :id")
+    Integer findAttempts(UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthChallenge c WHERE c.id = :id")
+    int deleteChallenge(UUID id);
+
+    // 有界计数：最多扫描 limit 行（容量判断只需知道是否达到上限）
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM auth_challenge LIMIT :limit) t", nativeQuery = true)
+    long countUpTo(int limit);
+
+    // 小批量删除，避免长事务与大范围行锁
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM auth_challenge WHERE expire_at < :now ORDER BY expire_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int limit);
+}
@@ -1,8 +1,13 @@
 package com.foxsoftware.foxblog.repository;
 
 import com.foxsoftware.foxblog.entity.Media;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +18,110 @@ public interface MediaRepository extends JpaRepository<Media, UUID> {
     Optional<Media> findFirstBySha256Hash(String sha256Hash);
 
     List<Media> findAllBySha256Hash(String sha256Hash);
+
+    // 依赖 uk_media_hash：哈希已存在时不插入（跨节点并发去重）
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO media (id, storage_path, mime_type, size_bytes, sha256_hash)
+            VALUES (:id, :storagePath, :mimeType, :sizeBytes, :sha256Hash)
+            ON DUPLICATE KEY UPDATE id = id
+            """, nativeQuery = true)
+    int insertIfAbsent(byte[] id, String storagePath, String mimeType, long sizeBytes, String sha256Hash);
+
+    // 布局迁移：按 id 游标分批取出尚未进入 CAS 的记录
+    @Query("""
+            SELECT m FROM Media m
+            WHERE m.storagePath NOT LIKE 'cas/%'
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<Media> findLegacyLayoutBatch(UUID after, Pageable pageable);
+
+    // 衍生图：重启后按 id 游标扫描未完成的图片
+    @Query("""
+            SELECT m.id FROM Media m
+            WHERE m.variantsReady = false
+              AND m.mimeType LIKE 'image/%'
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<UUID> findPendingVariantIds(UUID after, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Media m SET m.variantsReady = true WHERE m.id = :id")
+    int markVariantsReady(UUID id);
+
+    // 元数据：重启后按 id 游标扫描未提取的图片 / 视频
+    @Query("""
+            SELECT m.id FROM Media m
+            WHERE m.metadataReady = false
+              AND (m.mimeType LIKE 'image/%' OR m.mimeType LIKE 'video/%')
+              AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<UUID> findPendingMetadataIds(UUID after, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Media m
+            SET m.width = :width, m.height = :height, m.orientation = :orientation,
+                m.durationMs = :durationMs, m.blurhash = :blurhash, m.metadataReady = true
+            WHERE m.id = :id
+            """)
+    int updateMetadata(UUID id, Integer width, Integer height, Integer orientation, Long durationMs, String blurhash);
+
+    // ========== 引用计数 / 孤儿清理 ==========
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("""
+            UPDATE Media m
+            SET m.refCount = CASE WHEN m.refCount + :delta < 0 THEN 0 ELSE m.refCount + :delta END
+            WHERE m.id IN :ids
+            """)
+    int adjustRefCount(Collection<UUID> ids, int delta);
+
+    // 宽限期在数据库内按 NOW(6) 计算：last_referenced_at 由 CURRENT_TIMESTAMP(6) 写入，两者同一时钟与会话时区
+    @Query(value = """
+            SELECT * FROM media
+            WHERE ref_count = 0
+              AND last_referenced_at < NOW(6) - INTERVAL :graceHours HOUR
+            ORDER BY last_referenced_at
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Media> findOrphanCandidates(long graceHours, int limit);
+
+    // 条件删除：计数为 0、宽限期内未被复用且确实没有 post_media 引用，防止与并发绑定 / 去重复用竞争
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM media
+            WHERE id = :id
+              AND ref_count = 0
+              AND last_referenced_at < NOW(6) - INTERVAL :graceHours HOUR
+              AND NOT EXISTS (SELECT 1 FROM post_media pm WHERE pm.media_id = :id)
+            """, nativeQuery = true)
+    int deleteIfUnreferenced(byte[] id, long graceHours);
+
+    // 去重复用时刷新宽限期起点；返回 0 表示记录已被清理
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE media SET last_referenced_at = CURRENT_TIMESTAMP(6) WHERE id = :id", nativeQuery = true)
+    int markReferenced(byte[] id);
+
+    // 计数漂移时按 post_media 重算
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE media
+            SET ref_count = (SELECT COUNT(*) FROM post_media pm WHERE pm.media_id = :id)
+            WHERE id = :id
+            """, nativeQuery = true)
+    int recountRefs(byte[] id);
+
+    @Query("SELECT m.storagePath FROM Media m WHERE m.storagePath IN :paths")
+    List<String> findExistingStoragePaths(Collection<String> paths);
 }
\ No newline at end of file
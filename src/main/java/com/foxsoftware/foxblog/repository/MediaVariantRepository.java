@@ -0,0 +1,17 @@
+package com.foxsoftware.foxblog.repository;
+
+import com.foxsoftware.foxblog.entity.MediaVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MediaVariantRepository extends JpaRepository<MediaVariant, Long> {
+
+    List<MediaVariant> findByMediaIdOrderByWidthAsc(UUID mediaId);
+
+    @Query("SELECT v.storagePath FROM MediaVariant v WHERE v.storagePath IN :paths")
+    List<String> findExistingStoragePaths(Collection<String> paths);
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.foxsoftware.foxblog.repository;
+
+import com.foxsoftware.foxblog.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // 条件更新：只有第一个使用者能把令牌标记为已用，并发重放返回 0
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE RefreshToken r SET r.usedAt = :now
+            WHERE r.id = :id AND r.usedAt IS NULL AND r.revoked = false
+            """)
+    int markUsed(Long id, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(String familyId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
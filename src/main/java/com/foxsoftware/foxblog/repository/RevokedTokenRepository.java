@@ -0,0 +1,33 @@
+package com.foxsoftware.foxblog.repository;
+
+import com.foxsoftware.foxblog.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // 依赖主键：同一 jti 并发吊销（重复登出）时不报错，保留最先写入的记录
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO revoked_token (jti, subject, expires_at, revoked_at, reason)
+            VALUES (:jti, :subject, :expiresAt, :revokedAt, :reason)
+            ON DUPLICATE KEY UPDATE jti = jti
+            """, nativeQuery = true)
+    int insertIfAbsent(String jti, String subject, LocalDateTime expiresAt, LocalDateTime revokedAt, String reason);
+
+    // 多实例同步：其他节点新吊销的记录
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
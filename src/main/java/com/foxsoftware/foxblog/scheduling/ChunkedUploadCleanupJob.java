@@ -0,0 +1,29 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.media.ChunkedUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkedUploadCleanupJob {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @Scheduled(fixedDelay = 600000)
+    public void sweep() {
+        try {
+            int removed = chunkedUploadService.sweepExpired();
+            if (removed > 0) {
+                log.info("[MEDIA] cleaned {} abandoned upload sessions/files", removed);
+            } else {
+                log.debug("[MEDIA] no abandoned upload sessions to clean");
+            }
+        } catch (Exception e) {
+            log.error("[MEDIA] upload session cleanup failed", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.auth.LoginRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginRateLimitCleanupJob {
+
+    private final LoginRateLimiter rateLimiter;
+
+    @Scheduled(fixedDelay = 60000)
+    public void sweep() {
+        try {
+            int removed = rateLimiter.evictIdle();
+            if (removed > 0) {
+                log.debug("[AUTH] evicted {} idle rate-limit buckets", removed);
+            }
+        } catch (Exception e) {
+            log.error("[AUTH] rate-limit cleanup failed", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.media.MediaMetadataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 元数据补偿：启动后及之后定期把未提取的媒体重新排队（队列满被丢弃的、重启中断的、上线前的历史数据）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaMetadataResumeJob {
+
+    private final MediaMetadataService metadataService;
+
+    @Scheduled(initialDelayString = "${app.media.metadata.resume-initial-delay-ms:45000}",
+            fixedDelayString = "${app.media.metadata.resume-interval-ms:600000}")
+    public void resume() {
+        try {
+            int submitted = metadataService.resumePending(100);
+            if (submitted > 0) {
+                log.info("[MEDIA] re-queued {} pending metadata jobs", submitted);
+            }
+        } catch (Exception e) {
+            log.error("[MEDIA] metadata resume failed", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.media.MediaVariantService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 衍生图补偿：启动后及之后定期把未完成的图片重新排队（队列满被丢弃的、重启中断的）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MediaVariantResumeJob {
+
+    private final MediaVariantService variantService;
+
+    @Scheduled(initialDelayString = "${app.media.variants.resume-initial-delay-ms:30000}",
+            fixedDelayString = "${app.media.variants.resume-interval-ms:600000}")
+    public void resume() {
+        try {
+            int submitted = variantService.resumePending(100);
+            if (submitted > 0) {
+                log.info("[MEDIA] re-queued {} pending variant jobs", submitted);
+            }
+        } catch (Exception e) {
+            log.error("[MEDIA] variant resume failed", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.media.MediaGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 孤儿媒体清理：每轮一小批记录 + 若干存储分区，增量推进
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanMediaSweepJob {
+
+    private final MediaGarbageCollector garbageCollector;
+
+    @Value("${app.media.gc.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(initialDelayString = "${app.media.gc.initial-delay-ms:120000}",
+            fixedDelayString = "${app.media.gc.interval-ms:300000}")
+    public void sweep() {
+        if (!enabled) return;
+        try {
+            int rows = garbageCollector.sweepRows();
+            int strays = garbageCollector.sweepStrayFiles();
+            if (rows > 0 || strays > 0) {
+                log.info("[MEDIA] gc removed {} orphan media, found {} stray files", rows, strays);
+            }
+        } catch (Exception e) {
+            log.error("[MEDIA] gc sweep failed", e);
+        }
+    }
+}
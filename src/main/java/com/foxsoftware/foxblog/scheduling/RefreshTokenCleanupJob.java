@@ -0,0 +1,27 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenCleanupJob {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @Scheduled(fixedDelay = 3600000)
+    public void sweep() {
+        try {
+            int removed = refreshTokenService.sweepExpired();
+            if (removed > 0) {
+                log.info("[AUTH] cleaned {} expired refresh tokens", removed);
+            }
+        } catch (Exception e) {
+            log.error("[AUTH] refresh token cleanup failed", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.foxsoftware.foxblog.scheduling;
+
+import com.foxsoftware.foxblog.security.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 吊销表维护：同步其他实例新增的吊销，清除已过期的记录
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationJob {
+
+    private final TokenRevocationList revocationList;
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:30000}")
+    public void maintain() {
+        try {
+            int added = revocationList.sync();
+            int pruned = revocationList.prune();
+            if (added > 0 || pruned > 0) {
+                log.info("[JWT] revocation list synced added={} pruned={}", added, pruned);
+            }
+        } catch (Exception e) {
+            log.error("[JWT] revocation list maintenance failed", e);
+        }
+    }
+}
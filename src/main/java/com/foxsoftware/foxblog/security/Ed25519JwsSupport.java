@@ -0,0 +1,85 @@
+package com.foxsoftware.foxblog.security;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.impl.BaseJWSProvider;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.EdECKey;
+import java.security.spec.NamedParameterSpec;
+import java.util.Set;
+
+/**
+ * 基于 JDK 内置 Ed25519（JDK 15+）的 JWS 签名 / 验签
+ * nimbus 自带的 Ed25519Signer 依赖 Tink 且只接受 OctetKeyPair，这里直接使用 PEM 加载出的 JDK 密钥。
+ */
+final class Ed25519JwsSupport {
+
+    static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.EdDSA, JWSAlgorithm.Ed25519);
+
+    private Ed25519JwsSupport() {}
+
+    static boolean supports(String alg) {
+        return JWSAlgorithm.EdDSA.getName().equals(alg) || JWSAlgorithm.Ed25519.getName().equals(alg);
+    }
+
+    // JDK 中 Ed25519 / Ed448 的算法名都是 EdDSA，需按曲线参数区分
+    private static void requireEd25519(Key key) {
+        if (!(key instanceof EdECKey ed) || !NamedParameterSpec.ED25519.getName().equals(ed.getParams().getName())) {
+            throw new IllegalArgumentException("Not an Ed25519 key: " + key.getAlgorithm());
+        }
+    }
+
+    static final class Signer extends BaseJWSProvider implements JWSSigner {
+
+        private final PrivateKey privateKey;
+
+        Signer(PrivateKey privateKey) {
+            super(ALGORITHMS);
+            requireEd25519(privateKey);
+            this.privateKey = privateKey;
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            try {
+                Signature sig = Signature.getInstance("Ed25519");
+                sig.initSign(privateKey);
+                sig.update(signingInput);
+                return Base64URL.encode(sig.sign());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 sign failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    static final class Verifier extends BaseJWSProvider implements JWSVerifier {
+
+        private final PublicKey publicKey;
+
+        Verifier(PublicKey publicKey) {
+            super(ALGORITHMS);
+            requireEd25519(publicKey);
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signedContent, Base64URL signature) throws JOSEException {
+            if (!supportedJWSAlgorithms().contains(header.getAlgorithm())) return false;
+            try {
+                Signature sig = Signature.getInstance("Ed25519");
+                sig.initVerify(publicKey);
+                sig.update(signedContent);
+                return sig.verify(signature.decode());
+            } catch (java.security.SignatureException e) {
+                return false;
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 verify failed: " + e.getMessage(), e);
+            }
+        }
+    }
+}
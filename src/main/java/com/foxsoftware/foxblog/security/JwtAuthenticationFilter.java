@@ -12,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,13 +21,21 @@ import java.util.stream.Collectors;
 
 /**
  * 从 Authorization: Bearer <token> 中解析 & 验证 JWT。
- * 使用 ProductionJwtProvider 的 parseAndValidate。
+ * 使用 ProductionJwtProvider 的 parseAndValidate，随后检查 TokenRevocationList。
+ * 公开路径（skipPaths）整体跳过：不解析 token、不写 SecurityContext，带无效 token 也不会 401。
  */
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final ProductionJwtProvider jwtProvider;
+    private final TokenRevocationList revocationList;
+    private final RequestMatcher skipPaths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return skipPaths.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,10 +48,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7).trim();
             try {
                 var vt = jwtProvider.parseAndValidate(token);
+                if (revocationList.isRevoked(vt.getJti())) {
+                    writeError(response, 401, "INVALID_TOKEN", "Token revoked");
+                    return;
+                }
                 var authorities = vt.getRoles().stream()
                         .map(r -> new SimpleGrantedAuthority("ROLE_" + r))
                         .collect(Collectors.toList());
                 var auth = new UsernamePasswordAuthenticationToken(vt.getSubject(), null, authorities);
+                // 保留 jti / exp 等信息，供登出吊销使用
+                auth.setDetails(vt);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (JwtVerifyException e) {
                 writeError(response, 401, "INVALID_TOKEN", e.getMessage());
@@ -0,0 +1,162 @@
+package com.foxsoftware.foxblog.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JWT 密钥文件监听
+ *  - 对解析为本地文件的 PEM 位置（file:、开发环境下的 classpath 目录），监听其所在目录
+ *    目录内任何变化都触发（兼容 Kubernetes Secret 通过 ..data 符号链接整体替换的方式）
+ *  - 事件去抖：最后一次事件后 watch-debounce-millis 内无新事件才 reload
+ *  - reload 在独立线程执行；新密钥自检失败时保留旧密钥，记录 jwt.keys.watch.failures
+ * 打包进 jar 的 classpath 位置无法监听，仍可调用 POST /api/admin/jwt/reload-keys。
+ */
+@Slf4j
+@Component
+public class JwtKeyWatcher {
+
+    private final JwtSecurityProperties props;
+    private final ProductionJwtProvider provider;
+    private final ResourceLoader resourceLoader;
+    private final Counter failures;
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService reloader;
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+    private ScheduledFuture<?> pending;
+
+    public JwtKeyWatcher(JwtSecurityProperties props, ProductionJwtProvider provider,
+                         ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.provider = provider;
+        this.resourceLoader = resourceLoader;
+        this.failures = Counter.builder("jwt.keys.watch.failures")
+                .description("文件变化触发但未能生效的密钥 reload")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!props.isWatchKeys()) return;
+        Set<Path> dirs = watchedDirectories();
+        if (dirs.isEmpty()) {
+            log.info("[JWT] no file-based key locations, key watcher disabled");
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : dirs) {
+                dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            log.warn("[JWT] key watcher not started: {}", e.getMessage());
+            closeQuietly();
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-key-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        watchThread = new Thread(this::watchLoop, "jwt-key-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.info("[JWT] watching key directories {}", dirs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (watchThread != null) watchThread.interrupt();
+        if (reloader != null) reloader.shutdownNow();
+        closeQuietly();
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private void watchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            // 事件内容不重要（OVERFLOW 同样需要 reload），取出即可
+            if (!key.pollEvents().isEmpty()) {
+                scheduleReload();
+            }
+            if (!key.reset()) {
+                log.warn("[JWT] key directory no longer watchable: {}", key.watchable());
+            }
+        }
+    }
+
+    private void scheduleReload() {
+        scheduleLock.lock();
+        try {
+            if (pending != null) pending.cancel(false);
+            pending = reloader.schedule(this::reload, props.getWatchDebounceMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void reload() {
+        try {
+            provider.reload();
+            log.info("[JWT] keys reloaded after file change");
+        } catch (Exception e) {
+            failures.increment();
+            log.error("[JWT] key reload after file change failed, keeping previous keys: {}", e.getMessage());
+        }
+    }
+
+    private Set<Path> watchedDirectories() {
+        Set<String> locations = new LinkedHashSet<>();
+        if (props.getActiveKey() != null) {
+            locations.add(props.getActiveKey().getPrivatePemLocation());
+            locations.add(props.getActiveKey().getPublicPemLocation());
+        }
+        if (props.getPassiveKeys() != null) {
+            props.getPassiveKeys().forEach(k -> locations.add(k.getPublicPemLocation()));
+        }
+        Set<Path> dirs = new LinkedHashSet<>();
+        for (String location : locations) {
+            if (location == null || location.isBlank()) continue;
+            try {
+                Resource res = resourceLoader.getResource(location);
+                if (res.isFile()) {
+                    dirs.add(res.getFile().toPath().toAbsolutePath().getParent());
+                }
+            } catch (IOException e) {
+                log.debug("[JWT] key location not watchable {}: {}", location, e.getMessage());
+            }
+        }
+        return dirs;
+    }
+
+    private void closeQuietly() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
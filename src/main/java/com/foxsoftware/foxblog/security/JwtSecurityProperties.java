@@ -15,6 +15,14 @@ public class JwtSecurityProperties {
     private long accessTokenSeconds = 7200;
     private long clockSkewSeconds = 30;
     private boolean logKeysAtStartup = false;
+    // 已验签 token 缓存条目上限，0 表示关闭
+    private int verifiedCacheSize = 10000;
+    // /.well-known/jwks.json 的缓存时间，应明显短于密钥轮换时新旧公钥并存的时间
+    private long jwksMaxAgeSeconds = 300;
+    // 监听文件系统中的 PEM（file: 或解析为本地文件的位置），变化后自动 reload
+    private boolean watchKeys = true;
+    // 连续的文件事件合并为一次 reload（写 PEM 往往分多次落盘 / 改名）
+    private long watchDebounceMillis = 2000;
 
     private KeySpec activeKey;
     private List<KeySpec> passiveKeys;
@@ -24,6 +32,6 @@ public class JwtSecurityProperties {
         private String id;
         private String privatePemLocation; // active 必填
         private String publicPemLocation;  // active + passive 必填
-        private String algorithm = "RS256"; // RS256 / ES256 / ES384 / ES512
+        private String algorithm = "RS256"; // RS256 / ES256 / ES384 / ES512 / EdDSA (Ed25519)
     }
 }
\ No newline at end of file
@@ -5,25 +5,38 @@ import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 生产用 JWT Provider：
  *  - 负责：签发 + 验证 + 密钥热加载
  *  - 实现 JwtTokenGenerator
  *  - 仅使用 spring.security.jwt.* 配置
+ *  - 验证结果按 token 摘要缓存到过期为止，reload() 后随 KeyState 一起失效
+ *  - JWKS 文档（active + passive 公钥）随 KeyState 预先生成，reload() 时原子替换
+ *  - reload() 先在新密钥上做一次签名 / 验签自检，通过后才替换；签发与验证只读 KeyState 引用，从不等待 reload
  */
 @Slf4j
 @Component
@@ -31,11 +44,15 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
 
     private final JwtSecurityProperties props;
     private final PemKeyLoader pemKeyLoader;
+    private final MeterRegistry meterRegistry;
     private final AtomicReference<KeyState> ref = new AtomicReference<>();
+    // 串行化 reload；不用 synchronized：持锁期间读 PEM 文件，在虚拟线程上会钉住载体线程
+    private final ReentrantLock reloadLock = new ReentrantLock();
 
-    public ProductionJwtProvider(JwtSecurityProperties props, PemKeyLoader pemKeyLoader) {
+    public ProductionJwtProvider(JwtSecurityProperties props, PemKeyLoader pemKeyLoader, MeterRegistry meterRegistry) {
         this.props = props;
         this.pemKeyLoader = pemKeyLoader;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostConstruct
@@ -44,9 +61,33 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
     }
 
     /**
-     * 重新加载配置中的 active + passive 公钥集合
+     * 重新加载配置中的 active + passive 公钥集合；失败时保留原有密钥并抛出异常
+     * 耗时与结果记录在 jwt.keys.reload（tag outcome=success|failure）
      */
-    public synchronized void reload() {
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                doReload();
+                record(sample, "success");
+            } catch (RuntimeException e) {
+                record(sample, "failure");
+                throw e;
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void record(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("jwt.keys.reload")
+                .description("JWT 密钥重新加载")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private void doReload() {
         if (props.getActiveKey() == null) {
             throw new IllegalStateException("spring.security.jwt.active-key 未配置");
         }
@@ -68,12 +109,22 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
             }
         }
 
-        ref.set(new KeyState(activeSpec.getId(), activePriv, pubs, algs, Instant.now()));
+        selfCheck(activeSpec.getId(), JWSAlgorithm.parse(activeSpec.getAlgorithm()), activePriv, activePub);
+        Jwks jwks = buildJwks(pubs, algs);
+        ref.set(new KeyState(activeSpec.getId(), activePriv, pubs, algs, Instant.now(),
+                new VerifiedTokenCache(props.getVerifiedCacheSize(), props.getClockSkewSeconds()), jwks));
         if (props.isLogKeysAtStartup()) {
             log.info("[JWT] Reloaded keys activeKid={} passiveCount={}", activeSpec.getId(), pubs.size() - 1);
         }
     }
 
+    /**
+     * 当前公钥集合的 JWKS（已序列化），供 /.well-known/jwks.json 直接输出
+     */
+    public Jwks jwks() {
+        return state().getJwks();
+    }
+
     @Override
     public String generateToken(String subject, Instant issuedAt, Instant expiresAt, List<String> roles) {
         KeyState ks = state();
@@ -109,11 +160,20 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
     }
 
     public VerifiedToken parseAndValidate(String token) throws JwtVerifyException {
+        KeyState ks = state();
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedToken cached = ks.getVerifiedCache().get(digest, Instant.now());
+        if (cached != null) return cached;
+        VerifiedToken vt = verify(token, ks);
+        ks.getVerifiedCache().put(digest, vt, Instant.now());
+        return vt;
+    }
+
+    private VerifiedToken verify(String token, KeyState ks) throws JwtVerifyException {
         try {
             SignedJWT jwt = SignedJWT.parse(token);
             String kid = jwt.getHeader().getKeyID();
             if (kid == null || kid.isBlank()) throw new JwtVerifyException("Missing kid");
-            KeyState ks = state();
             PublicKey publicKey = ks.getPublicKeys().get(kid);
             if (publicKey == null) throw new JwtVerifyException("Unknown kid");
             String algName = jwt.getHeader().getAlgorithm().getName();
@@ -156,11 +216,27 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
         }
     }
 
+    /**
+     * 用新的 active 私钥签一段固定内容，再用对应公钥验签：私钥 / 公钥不配对或算法不符时拒绝切换
+     */
+    private void selfCheck(String kid, JWSAlgorithm alg, PrivateKey priv, PublicKey pub) {
+        try {
+            JWSObject probe = new JWSObject(new JWSHeader.Builder(alg).keyID(kid).build(), new Payload("key-check"));
+            probe.sign(buildSigner(alg, priv));
+            if (!probe.verify(buildVerifier(alg, pub))) {
+                throw new IllegalStateException("Active key pair mismatch: kid=" + kid);
+            }
+        } catch (JOSEException | RuntimeException e) {
+            throw new IllegalStateException("Active key self-check failed: kid=" + kid, e);
+        }
+    }
+
     private JWSSigner buildSigner(JWSAlgorithm alg, PrivateKey pk) {
         try {
             return switch (alg.getName()) {
                 case "RS256", "RS384", "RS512" -> new RSASSASigner(pk);
                 case "ES256", "ES384", "ES512" -> new ECDSASigner((java.security.interfaces.ECPrivateKey) pk);
+                case "EdDSA", "Ed25519" -> new Ed25519JwsSupport.Signer(pk);
                 default -> throw new IllegalArgumentException("Unsupported alg: " + alg);
             };
         } catch (JOSEException e) {
@@ -173,6 +249,7 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
             return switch (alg.getName()) {
                 case "RS256", "RS384", "RS512" -> new RSASSAVerifier((java.security.interfaces.RSAPublicKey) pk);
                 case "ES256", "ES384", "ES512" -> new ECDSAVerifier((java.security.interfaces.ECPublicKey) pk);
+                case "EdDSA", "Ed25519" -> new Ed25519JwsSupport.Verifier(pk);
                 default -> throw new IllegalArgumentException("Unsupported alg: " + alg);
             };
         } catch (JOSEException e) {
@@ -180,6 +257,39 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
         }
     }
 
+    private Jwks buildJwks(Map<String, PublicKey> pubs, Map<String, String> algs) {
+        List<JWK> keys = new ArrayList<>();
+        // 按 kid 排序，保证同一组密钥生成的文档（及 ETag）稳定
+        for (String kid : new TreeSet<>(pubs.keySet())) {
+            keys.add(toJwk(kid, pubs.get(kid), JWSAlgorithm.parse(algs.get(kid))));
+        }
+        byte[] json = new JWKSet(keys).toString(true).getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Jwks(json, "\"" + Base64URL.encode(Arrays.copyOf(digest, 16)) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JWK toJwk(String kid, PublicKey pk, JWSAlgorithm alg) {
+        if (pk instanceof RSAPublicKey rsa) {
+            return new RSAKey.Builder(rsa).keyID(kid).algorithm(alg).keyUse(KeyUse.SIGNATURE).build();
+        }
+        if (pk instanceof ECPublicKey ec) {
+            return new ECKey.Builder(Curve.forECParameterSpec(ec.getParams()), ec)
+                    .keyID(kid).algorithm(alg).keyUse(KeyUse.SIGNATURE).build();
+        }
+        if (Ed25519JwsSupport.supports(alg.getName())) {
+            // X.509 SubjectPublicKeyInfo 末尾 32 字节即原始公钥
+            byte[] der = pk.getEncoded();
+            byte[] x = Arrays.copyOfRange(der, der.length - 32, der.length);
+            return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                    .keyID(kid).algorithm(alg).keyUse(KeyUse.SIGNATURE).build();
+        }
+        throw new IllegalStateException("Unsupported public key for JWKS: kid=" + kid);
+    }
+
     private KeyState state() {
         KeyState st = ref.get();
         if (st == null) throw new IllegalStateException("Keys not loaded");
@@ -193,6 +303,14 @@ public class ProductionJwtProvider implements JwtTokenGenerator {
         Map<String, PublicKey> publicKeys;
         Map<String, String> algorithms;
         Instant loadedAt;
+        VerifiedTokenCache verifiedCache;
+        Jwks jwks;
+    }
+
+    @Value
+    public static class Jwks {
+        byte[] json;
+        String etag;
     }
 
     @Value
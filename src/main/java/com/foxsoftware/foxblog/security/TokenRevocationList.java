@@ -0,0 +1,198 @@
+package com.foxsoftware.foxblog.security;
+
+import com.foxsoftware.foxblog.entity.RevokedToken;
+import com.foxsoftware.foxblog.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 访问令牌吊销表（按 jti）
+ *  - 持久化在 revoked_token，启动时加载未过期的记录，定时同步其他实例新增的吊销
+ *  - 内存：Bloom 过滤器 + 精确集合；绝大多数请求的 jti 不在表中，过滤器一次位运算即可放行
+ *  - 读路径无锁：Bloom 通过 volatile 引用发布，精确集合为 ConcurrentHashMap
+ *  - 写（吊销 / 清理重建）串行化，保证重建 Bloom 时不丢失并发写入
+ *  - 令牌过期后记录即无意义，定时从数据库与内存中清除，并据此重建 Bloom
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository repository;
+
+    @Value("${security.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // jti -> 令牌过期时间
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile BloomFilter bloom;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationList(RevokedTokenRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    void init() {
+        LocalDateTime now = LocalDateTime.now();
+        bloom = new BloomFilter(expectedEntries, falsePositiveRate);
+        for (RevokedToken t : repository.findByExpiresAtAfter(now)) {
+            remember(t.getJti(), toInstant(t.getExpiresAt()));
+        }
+        lastSync = now;
+        log.info("[JWT] revocation list loaded entries={}", revoked.size());
+    }
+
+    /**
+     * 热路径：是否已吊销（无锁）
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        return bloom.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * 吊销令牌：先入库再进内存；重复吊销幂等
+     */
+    public void revoke(String jti, String subject, Instant expiresAt, String reason) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) return;
+        repository.insertIfAbsent(jti, subject, toLocal(expiresAt), LocalDateTime.now(), reason);
+        remember(jti, expiresAt);
+        log.info("[JWT] token revoked jti={} sub={} reason={}", jti, subject, reason);
+    }
+
+    /**
+     * 供定时任务调用：拉取其他实例新增的吊销记录
+     * @return 新增条数
+     */
+    public int sync() {
+        LocalDateTime now = LocalDateTime.now();
+        // 回看一小段时间，覆盖各实例时钟与事务提交顺序的差异
+        LocalDateTime since = lastSync.minusSeconds(30);
+        int added = 0;
+        for (RevokedToken t : repository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            if (!revoked.containsKey(t.getJti())) {
+                remember(t.getJti(), toInstant(t.getExpiresAt()));
+                added++;
+            }
+        }
+        lastSync = now;
+        return added;
+    }
+
+    /**
+     * 供定时任务调用：清除已过期的记录，并用剩余条目重建 Bloom（过滤器本身不支持删除）
+     * @return 内存中清除的条数
+     */
+    public int prune() {
+        Instant now = Instant.now();
+        repository.deleteExpired(LocalDateTime.now());
+        writeLock.lock();
+        try {
+            int before = revoked.size();
+            revoked.values().removeIf(exp -> !exp.isAfter(now));
+            int removed = before - revoked.size();
+            if (removed > 0) {
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+                revoked.keySet().forEach(rebuilt::put);
+                bloom = rebuilt;
+            }
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private void remember(String jti, Instant expiresAt) {
+        writeLock.lock();
+        try {
+            // 先写精确集合再置位：读者看到 Bloom 命中时精确集合一定已有该条目
+            revoked.put(jti, expiresAt);
+            bloom.put(jti);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * 定长 Bloom 过滤器：位数组为 AtomicLongArray，置位用 CAS，读取无锁
+     * 双重哈希（Kirsch–Mitzenmacher）模拟 k 个哈希函数
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expected, double fpp) {
+            int n = Math.max(1, expected);
+            long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        void put(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int idx = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long cur;
+                do {
+                    cur = bits.get(idx);
+                    if ((cur & mask) != 0) break;
+                } while (!bits.compareAndSet(idx, cur, cur | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        // FNV-1a 变体 + murmur3 fmix64 收尾
+        private static long hash(String key, long seed) {
+            long h = seed;
+            // 直接按 char 计算，热路径不分配内存
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.foxsoftware.foxblog.security;
+
+import com.foxsoftware.foxblog.security.ProductionJwtProvider.VerifiedToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已验签 token 的缓存
+ *  - key 为 token 的 SHA-256（不持有原始 token），命中时跳过解析与公钥运算
+ *  - 条目在 exp + 时钟偏差后失效；满了先清过期项，仍满则本次不缓存
+ *  - 随 KeyState 一起创建，reload() 换掉 KeyState 即整体失效
+ */
+final class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final long skewSeconds;
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxEntries, long skewSeconds) {
+        this.maxEntries = maxEntries;
+        this.skewSeconds = skewSeconds;
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    VerifiedToken get(String digest, Instant now) {
+        VerifiedToken vt = entries.get(digest);
+        if (vt == null) return null;
+        if (now.isAfter(vt.getExpiresAt().plusSeconds(skewSeconds))) {
+            entries.remove(digest, vt);
+            return null;
+        }
+        return vt;
+    }
+
+    void put(String digest, VerifiedToken vt, Instant now) {
+        if (maxEntries <= 0) return;
+        if (entries.size() >= maxEntries) {
+            evictExpired(now);
+            if (entries.size() >= maxEntries) return;
+        }
+        entries.put(digest, vt);
+    }
+
+    private void evictExpired(Instant now) {
+        entries.values().removeIf(vt -> now.isAfter(vt.getExpiresAt().plusSeconds(skewSeconds)));
+    }
+}
@@ -3,19 +3,22 @@ package com.foxsoftware.foxblog.service;
 import com.foxsoftware.foxblog.entity.AdminAuth;
 import com.foxsoftware.foxblog.repository.AdminAuthRepository;
 import com.foxsoftware.foxblog.security.JwtTokenGenerator;
+import com.foxsoftware.foxblog.service.auth.ChallengeStore;
+import com.foxsoftware.foxblog.service.auth.LoginChallenge;
+import com.foxsoftware.foxblog.service.auth.LoginRateLimiter;
+import com.foxsoftware.foxblog.service.auth.PasswordHashExecutor;
 import com.foxsoftware.foxblog.util.TotpUtils;
 import lombok.Getter;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AdminAuthService
@@ -23,7 +26,8 @@ import java.util.concurrent.ConcurrentHashMap;
  *  - 管理员登录（用户名 + 密码）
  *  - 首次登录强制 2FA 绑定（生成二维码 / otpauth URL）
  *  - 已绑定账号需要执行 OTP 第二步验证
- *  - 生成 JWT (通过 JwtTokenGenerator)
+ *  - 生成 JWT (通过 JwtTokenGenerator)，同时签发刷新令牌（RefreshTokenService）
+ *  - 刷新：用刷新令牌换新的访问令牌，不再走密码 + TOTP
  * 不负责：
  *  - 管理员注册/创建
  *  - 修改密码
@@ -42,13 +46,15 @@ import java.util.concurrent.ConcurrentHashMap;
  *      - 成功返回 JWT
  * 安全点：
  *  - 挑战 过期时间(默认5分钟)
- *  - 最大尝试次数 (默认6)
+ *  - 最大尝试次数 (默认6，计数在 ChallengeStore 内原子递增)
+ *  - 挑战总数有上限，存储满时拒绝新的登录 (503)
+ *  - 按 IP / 用户名令牌桶限流，超限直接 429 + Retry-After，不做密码校验
+ *  - 密码校验在 PasswordHashExecutor 专用线程池执行，池满时 503
  *  - OTP 时间漂移允许 ±1 (可配置)
  *  - 首次绑定前 secret 不入库，防止未完成绑定泄露
  * 可扩展：
- *  - 挑战改存 Redis
- *  - 增加登录速率限制 / IP 风控
- *  - 增加恢复码 / 黑名单 / Refresh Token
+ *  - IP 风控
+ *  - 增加恢复码
  */
 @Slf4j
 @Service
@@ -56,8 +62,11 @@ import java.util.concurrent.ConcurrentHashMap;
 public class AdminAuthService {
 
     private final AdminAuthRepository adminAuthRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHashExecutor;
     private final JwtTokenGenerator jwtTokenGenerator;
+    private final RefreshTokenService refreshTokenService;
+    private final ChallengeStore challengeStore;
+    private final LoginRateLimiter loginRateLimiter;
 
     // ================== 可配置参数 ==================
 
@@ -79,9 +88,6 @@ public class AdminAuthService {
     @Value("${security.jwt.token-hours:2}")
     private long tokenHours;
 
-    // ================== 内存挑战存储 ==================
-    private final Map<UUID, Challenge> challengeStore = new ConcurrentHashMap<>();
-
     // ================== 公开流程方法 ==================
 
     /**
@@ -90,9 +96,19 @@ public class AdminAuthService {
     public InitiateResult initiateLogin(String username, String rawPassword, String ip) {
         String user = normalize(username);
 
+        // 限流在查库与 BCrypt 之前，撞库时被拒绝的请求几乎不消耗 CPU
+        long retryAfter = loginRateLimiter.tryAcquire(ip, user);
+        if (retryAfter > 0) {
+            log.warn("[AUTH] LOGIN_RATE_LIMITED user={} ip={} retryAfter={}s", user, ip, retryAfter);
+            throw AuthException.rateLimited(retryAfter);
+        }
+
         AdminAuth admin = adminAuthRepository.findByUsernameAndEnabledTrue(user).orElse(null);
-        if (admin == null || admin.getPasswordHash() == null ||
-                !passwordEncoder.matches(rawPassword, admin.getPasswordHash())) {
+        if (admin == null || admin.getPasswordHash() == null) {
+            throw AuthException.invalidCredentials();
+        }
+        // BCrypt 在专用线程池上执行；池满 / 超时抛 AUTH_BUSY 快速失败
+        if (!passwordHashExecutor.matches(rawPassword, admin.getPasswordHash())) {
             throw AuthException.invalidCredentials();
         }
 
@@ -105,15 +121,13 @@ public class AdminAuthService {
             String tempSecret = TotpUtils.generateBase32Secret(secretBytes);
             String provisioningUri = TotpUtils.buildOtpAuthUrl(issuer, admin.getUsername(), tempSecret);
 
-            Challenge challenge = Challenge.setup(challengeId, admin.getId(), tempSecret, now, expireAt, ip);
-            challengeStore.put(challengeId, challenge);
+            store(LoginChallenge.setup(challengeId, admin.getId(), tempSecret, now, expireAt, ip));
 
             log.info("[AUTH] SETUP_REQUIRED user={} challengeId={} ip={}", user, challengeId, ip);
             return new InitiateResult(LoginStatus.SETUP_REQUIRED, challengeId, provisioningUri, expireAt);
         } else {
             // 常规 OTP 登录
-            Challenge challenge = Challenge.login(challengeId, admin.getId(), now, expireAt, ip);
-            challengeStore.put(challengeId, challenge);
+            store(LoginChallenge.login(challengeId, admin.getId(), now, expireAt, ip));
 
             log.info("[AUTH] OTP_REQUIRED user={} challengeId={} ip={}", user, challengeId, ip);
             return new InitiateResult(LoginStatus.OTP_REQUIRED, challengeId, null, expireAt);
@@ -124,49 +138,39 @@ public class AdminAuthService {
      * 首次绑定确认：输入 6 位 TOTP
      */
     public JwtResult confirmSetup(UUID challengeId, String otp, String ip) {
-        Challenge ch = challengeStore.get(challengeId);
-        if (ch == null || ch.type != ChallengeType.SETUP) {
-            throw AuthException.challengeInvalid();
-        }
-        validateChallengeState(ch);
-
-        ch.incrementAttempts();
+        LoginChallenge ch = requireChallenge(challengeId, LoginChallenge.Type.SETUP);
+        int remaining = acquireAttempt(ch);
 
-        if (!TotpUtils.validateCode(ch.tempSecret, otp, allowedDriftSteps)) {
-            handleFailedAttempt(ch);
+        if (!TotpUtils.validateCode(ch.getTempSecret(), otp, allowedDriftSteps)) {
+            handleFailedAttempt(ch, remaining);
             throw AuthException.invalidOtp();
         }
 
         // 更新数据库
-        AdminAuth admin = adminAuthRepository.findById(ch.adminId)
+        AdminAuth admin = adminAuthRepository.findById(ch.getAdminId())
                 .filter(AdminAuth::isEnabled)
                 .orElseThrow(AuthException::invalidCredentials);
 
         // 处理可能的并发：如果已经有 secret，则直接发 token
         if (!admin.isTwoFactorEnabled()) {
             admin.setTwoFactorEnabled(true);
-            admin.setTotpSecretBase32(ch.tempSecret);
+            admin.setTotpSecretBase32(ch.getTempSecret());
             adminAuthRepository.save(admin);
         }
 
         removeChallenge(ch);
         log.info("[AUTH] 2FA_SETUP_COMPLETED user={} ip={}", admin.getUsername(), ip);
-        return issueJwt(admin.getUsername());
+        return issueJwt(admin.getUsername(), refreshTokenService.issue(admin.getId(), admin.getUsername()));
     }
 
     /**
      * 已启用 2FA 的常规第二步 OTP 校验
      */
     public JwtResult verifyOtp(UUID challengeId, String otp, String ip) {
-        Challenge ch = challengeStore.get(challengeId);
-        if (ch == null || ch.type != ChallengeType.LOGIN) {
-            throw AuthException.challengeInvalid();
-        }
-        validateChallengeState(ch);
+        LoginChallenge ch = requireChallenge(challengeId, LoginChallenge.Type.LOGIN);
+        int remaining = acquireAttempt(ch);
 
-        ch.incrementAttempts();
-
-        AdminAuth admin = adminAuthRepository.findById(ch.adminId)
+        AdminAuth admin = adminAuthRepository.findById(ch.getAdminId())
                 .filter(AdminAuth::isEnabled)
                 .orElseThrow(AuthException::invalidCredentials);
 
@@ -176,55 +180,79 @@ public class AdminAuthService {
         }
 
         if (!TotpUtils.validateCode(admin.getTotpSecretBase32(), otp, allowedDriftSteps)) {
-            handleFailedAttempt(ch);
+            handleFailedAttempt(ch, remaining);
             throw AuthException.invalidOtp();
         }
 
         removeChallenge(ch);
         log.info("[AUTH] LOGIN_SUCCESS user={} ip={}", admin.getUsername(), ip);
-        return issueJwt(admin.getUsername());
+        return issueJwt(admin.getUsername(), refreshTokenService.issue(admin.getId(), admin.getUsername()));
+    }
+
+    /**
+     * 刷新：轮换刷新令牌并签发新的访问令牌
+     */
+    public JwtResult refresh(String refreshToken, String ip) {
+        RefreshTokenService.Issued next = refreshTokenService.rotate(refreshToken);
+        log.info("[AUTH] TOKEN_REFRESHED user={} ip={}", next.username(), ip);
+        return issueJwt(next.username(), next);
     }
 
     /**
      * 供定时任务调用：清理过期挑战
      */
     public int sweepExpired() {
-        Instant now = Instant.now();
-        List<Challenge> expired = challengeStore.values().stream()
-                .filter(c -> now.isAfter(c.expireAt))
-                .toList();
-        expired.forEach(c -> challengeStore.remove(c.id));
-        return expired.size();
+        return challengeStore.sweepExpired(Instant.now());
     }
 
     // ================== 内部逻辑 ==================
 
-    private void validateChallengeState(Challenge ch) {
-        if (Instant.now().isAfter(ch.expireAt)) {
+    private void store(LoginChallenge challenge) {
+        if (!challengeStore.offer(challenge)) {
+            throw AuthException.tooManyChallenges();
+        }
+    }
+
+    private LoginChallenge requireChallenge(UUID challengeId, LoginChallenge.Type type) {
+        LoginChallenge ch = challengeStore.get(challengeId);
+        if (ch == null || ch.getType() != type) {
+            throw AuthException.challengeInvalid();
+        }
+        if (ch.isExpired(Instant.now())) {
             removeChallenge(ch);
             throw AuthException.challengeExpired();
         }
-        if (ch.attempts >= maxAttempts) {
+        return ch;
+    }
+
+    /**
+     * 占用一次尝试机会
+     * @return 本次之后剩余的次数
+     */
+    private int acquireAttempt(LoginChallenge ch) {
+        int remaining = challengeStore.recordAttempt(ch.getId(), maxAttempts);
+        if (remaining < 0) {
             removeChallenge(ch);
             throw AuthException.tooManyAttempts();
         }
+        return remaining;
     }
 
-    private void handleFailedAttempt(Challenge ch) {
-        if (ch.attempts >= maxAttempts) {
+    private void handleFailedAttempt(LoginChallenge ch, int remaining) {
+        if (remaining == 0) {
             removeChallenge(ch);
         }
     }
 
-    private JwtResult issueJwt(String username) {
+    private JwtResult issueJwt(String username, RefreshTokenService.Issued refresh) {
         Instant iat = Instant.now();
         Instant exp = iat.plus(Duration.ofHours(tokenHours));
         String token = jwtTokenGenerator.generateToken(username, iat, exp, List.of("ADMIN"));
-        return new JwtResult(token, iat, exp, username);
+        return new JwtResult(token, iat, exp, username, refresh.token(), refresh.expiresAt());
     }
 
-    private void removeChallenge(Challenge ch) {
-        challengeStore.remove(ch.id);
+    private void removeChallenge(LoginChallenge ch) {
+        challengeStore.remove(ch.getId());
     }
 
     private String normalize(String s) {
@@ -238,51 +266,6 @@ public class AdminAuthService {
         OTP_REQUIRED
     }
 
-    private enum ChallengeType {
-        SETUP, LOGIN
-    }
-
-    @Getter
-    private static final class Challenge {
-        private final UUID id;
-        private final Long adminId;
-        private final ChallengeType type;
-        private final Instant createdAt;
-        private final Instant expireAt;
-        private final String originIp;
-        private final String tempSecret; // 仅 SETUP
-        private int attempts;
-
-        private Challenge(UUID id,
-                          Long adminId,
-                          ChallengeType type,
-                          Instant createdAt,
-                          Instant expireAt,
-                          String originIp,
-                          String tempSecret) {
-            this.id = id;
-            this.adminId = adminId;
-            this.type = type;
-            this.createdAt = createdAt;
-            this.expireAt = expireAt;
-            this.originIp = originIp;
-            this.tempSecret = tempSecret;
-            this.attempts = 0;
-        }
-
-        static Challenge setup(UUID id, Long adminId, String secret, Instant now, Instant expire, String ip) {
-            return new Challenge(id, adminId, ChallengeType.SETUP, now, expire, ip, secret);
-        }
-
-        static Challenge login(UUID id, Long adminId, Instant now, Instant expire, String ip) {
-            return new Challenge(id, adminId, ChallengeType.LOGIN, now, expire, ip, null);
-        }
-
-        void incrementAttempts() {
-            attempts++;
-        }
-    }
-
     @Getter
     @AllArgsConstructor
     public static class InitiateResult {
@@ -299,15 +282,24 @@ public class AdminAuthService {
         private final Instant issuedAt;
         private final Instant expiresAt;
         private final String username;
+        private final String refreshToken;
+        private final Instant refreshExpiresAt;
     }
 
     // ================== 自定义异常（Controller 可统一转换） ==================
     @Getter
     public static class AuthException extends RuntimeException {
         private final String code;
+        private final HttpStatus status;
+        private final long retryAfterSeconds; // > 0 时响应带 Retry-After
         private AuthException(String code, String msg) {
+            this(code, msg, HttpStatus.UNAUTHORIZED, 0);
+        }
+        private AuthException(String code, String msg, HttpStatus status, long retryAfterSeconds) {
             super(msg);
             this.code = code;
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
         }
 
         public static AuthException invalidCredentials() { return new AuthException("INVALID_CREDENTIALS", "用户名或密码错误"); }
@@ -315,5 +307,10 @@ public class AdminAuthService {
         public static AuthException challengeInvalid()    { return new AuthException("CHALLENGE_INVALID", "无效的登录挑战"); }
         public static AuthException tooManyAttempts()     { return new AuthException("TOO_MANY_ATTEMPTS", "尝试次数过多"); }
         public static AuthException invalidOtp()          { return new AuthException("INVALID_OTP", "验证码错误"); }
+        public static AuthException refreshInvalid()      { return new AuthException("REFRESH_INVALID", "刷新令牌无效或已过期"); }
+        public static AuthException refreshReused()       { return new AuthException("REFRESH_REUSED", "刷新令牌已被使用，请重新登录"); }
+        public static AuthException tooManyChallenges()   { return new AuthException("TOO_MANY_CHALLENGES", "登录请求过多，请稍后再试", HttpStatus.SERVICE_UNAVAILABLE, 0); }
+        public static AuthException busy()                { return new AuthException("AUTH_BUSY", "登录服务繁忙，请稍后再试", HttpStatus.SERVICE_UNAVAILABLE, 1); }
+        public static AuthException rateLimited(long retryAfterSeconds) { return new AuthException("RATE_LIMITED", "登录过于频繁，请稍后再试", HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds); }
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.foxsoftware.foxblog.service;
+
+import com.foxsoftware.foxblog.entity.RefreshToken;
+import com.foxsoftware.foxblog.repository.AdminAuthRepository;
+import com.foxsoftware.foxblog.repository.RefreshTokenRepository;
+import com.foxsoftware.foxblog.service.AdminAuthService.AuthException;
+import com.foxsoftware.foxblog.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 刷新令牌
+ *  - 256 位随机值，库中只存 SHA-256（高熵令牌无需慢哈希）
+ *  - 每次刷新都换发新令牌（轮换），旧令牌标记已用；已用令牌再次出现视为泄露，整条 family 作废
+ *  - 刷新只做唯一索引查询 + 主键查询（管理员仍启用）+ 条件更新 + 插入，不触碰 BCrypt / TOTP
+ *  - 管理员被禁用后，下一次刷新即作废整条链
+ *  - 单个令牌 refresh-ttl 过期；整条链从登录起最长 session-max，轮换不延长
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository repository;
+    private final AdminAuthRepository adminAuthRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${security.refresh.ttl-days:7}")
+    private long ttlDays;
+
+    @Value("${security.refresh.session-max-days:30}")
+    private long sessionMaxDays;
+
+    /**
+     * 登录成功后开启新的令牌链
+     */
+    public Issued issue(Long adminId, String username) {
+        Instant now = Instant.now();
+        return create(UUID.randomUUID().toString(), adminId, username, now, now.plus(Duration.ofDays(sessionMaxDays)));
+    }
+
+    /**
+     * 用旧令牌换新令牌；无效、过期、已作废、重用或管理员已禁用时抛出 AuthException
+     * 标记已用与插入新令牌在同一事务：插入失败时旧令牌不会被误判为重用；作废令牌链不因 AuthException 回滚
+     */
+    @Transactional(noRollbackFor = AuthException.class)
+    public Issued rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) throw AuthException.refreshInvalid();
+        RefreshToken current = repository.findByTokenHash(hash(rawToken))
+                .orElseThrow(AuthException::refreshInvalid);
+
+        Instant now = Instant.now();
+        if (current.isRevoked() || !toInstant(current.getExpiresAt()).isAfter(now)) {
+            throw AuthException.refreshInvalid();
+        }
+        if (!adminAuthRepository.existsByIdAndEnabledTrue(current.getAdminId())) {
+            int revoked = repository.revokeFamily(current.getFamilyId());
+            log.warn("[AUTH] REFRESH_ADMIN_DISABLED user={} family={} revoked={}",
+                    current.getUsername(), current.getFamilyId(), revoked);
+            throw AuthException.refreshInvalid();
+        }
+        if (current.getUsedAt() != null || repository.markUsed(current.getId(), LocalDateTime.now()) == 0) {
+            // 已轮换过的令牌再次出现（或并发重放）：令牌链可能泄露，全部作废
+            int revoked = repository.revokeFamily(current.getFamilyId());
+            log.warn("[AUTH] REFRESH_REUSE user={} family={} revoked={}",
+                    current.getUsername(), current.getFamilyId(), revoked);
+            throw AuthException.refreshReused();
+        }
+        return create(current.getFamilyId(), current.getAdminId(), current.getUsername(),
+                now, toInstant(current.getFamilyExpiresAt()));
+    }
+
+    /**
+     * 登出时作废整条令牌链；令牌无效时静默忽略
+     */
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return;
+        repository.findByTokenHash(hash(rawToken))
+                .ifPresent(t -> repository.revokeFamily(t.getFamilyId()));
+    }
+
+    /**
+     * 供定时任务调用：删除过期令牌
+     */
+    public int sweepExpired() {
+        return repository.deleteExpired(LocalDateTime.now());
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private Issued create(String familyId, Long adminId, String username, Instant now, Instant familyExpiresAt) {
+        Instant expiresAt = now.plus(Duration.ofDays(ttlDays));
+        if (expiresAt.isAfter(familyExpiresAt)) expiresAt = familyExpiresAt;
+        if (!expiresAt.isAfter(now)) throw AuthException.refreshInvalid();
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        repository.save(RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .familyId(familyId)
+                .adminId(adminId)
+                .username(username)
+                .issuedAt(toLocal(now))
+                .expiresAt(toLocal(expiresAt))
+                .familyExpiresAt(toLocal(familyExpiresAt))
+                .revoked(false)
+                .build());
+        return new Issued(raw, expiresAt, username);
+    }
+
+    private String hash(String raw) {
+        return HashUtils.sha256Hex(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    public record Issued(String token, Instant expiresAt, String username) {}
+}
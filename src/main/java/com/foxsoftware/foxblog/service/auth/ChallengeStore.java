@@ -0,0 +1,43 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 登录挑战存储
+ *  - 容量有上限：满了拒绝新挑战（先尝试清理已过期的），而不是无界增长
+ *  - 尝试次数在存储内原子递增，调用方不直接修改计数
+ *  - 过期清理只触及已过期的条目
+ */
+public interface ChallengeStore {
+
+    /**
+     * 保存新挑战
+     * @return 容量已满时返回 false
+     */
+    boolean offer(LoginChallenge challenge);
+
+    /**
+     * 按 id 读取；不存在返回 null。已过期但尚未清理的挑战照常返回，由调用方判断
+     */
+    LoginChallenge get(UUID id);
+
+    /**
+     * 记一次尝试（仅当已用次数小于 maxAttempts 时）
+     * @return 本次之后剩余的次数；挑战不存在或次数已用尽时返回负数
+     */
+    int recordAttempt(UUID id, int maxAttempts);
+
+    boolean remove(UUID id);
+
+    /**
+     * 清理 expireAt 早于 now 的挑战
+     * @return 清理条数
+     */
+    int sweepExpired(Instant now);
+
+    /**
+     * 当前挑战数（可能含已过期未清理的）
+     */
+    long size();
+}
@@ -0,0 +1,54 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 挑战存储计数器，注册到 Micrometer（/actuator/metrics/auth.challenge.*，tag store=实现名）
+ * 容量满时的拒绝可能成批出现（攻击 / 突发），告警日志按 REJECT_WARN_INTERVAL 限频，精确数量看计数器
+ */
+final class ChallengeStoreMetrics {
+
+    private static final long REJECT_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    final LongAdder created = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder expired = new LongAdder();
+    private final AtomicLong lastRejectWarnNanos = new AtomicLong(System.nanoTime() - REJECT_WARN_INTERVAL_NANOS);
+
+    ChallengeStoreMetrics(MeterRegistry registry, String store, ChallengeStore target) {
+        counter(registry, "auth.challenge.created", "新建的登录挑战", store, created);
+        counter(registry, "auth.challenge.rejected", "容量已满被拒绝的登录挑战", store, rejected);
+        counter(registry, "auth.challenge.expired", "过期清理的登录挑战", store, expired);
+        Gauge.builder("auth.challenge.active", target, ChallengeStore::size)
+                .description("当前登录挑战数")
+                .tag("store", store)
+                .register(registry);
+    }
+
+    /**
+     * 记一次拒绝
+     * @return 是否应打告警日志（距上次告警超过间隔时只有一个调用方得到 true）
+     */
+    boolean reject() {
+        return reject(System.nanoTime());
+    }
+
+    boolean reject(long nowNanos) {
+        rejected.increment();
+        long last = lastRejectWarnNanos.get();
+        return nowNanos - last >= REJECT_WARN_INTERVAL_NANOS && lastRejectWarnNanos.compareAndSet(last, nowNanos);
+    }
+
+    private static void counter(MeterRegistry registry, String name, String description, String store, LongAdder adder) {
+        FunctionCounter.builder(name, adder, LongAdder::sum)
+                .description(description)
+                .tag("store", store)
+                .register(registry);
+    }
+}
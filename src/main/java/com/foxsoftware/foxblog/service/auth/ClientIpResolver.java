@@ -0,0 +1,41 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 登录限流与审计用的客户端 IP
+ *  - 只有直连方在 security.login.trusted-proxies 中（即经由本机 / 已知反向代理）时才采信 X-Real-IP
+ *  - 其余情况一律用连接的对端地址：缺少请求头时不会让所有客户端落到同一个键上，直连时也无法伪造
+ */
+@Component
+public class ClientIpResolver {
+
+    static final String HEADER = "X-Real-IP";
+
+    private final Set<String> trustedProxies;
+
+    public ClientIpResolver(@Value("${security.login.trusted-proxies:127.0.0.1,::1,0:0:0:0:0:0:0:1}")
+                            List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (trustedProxies.contains(remote)) {
+            String header = request.getHeader(HEADER);
+            if (header != null && !header.isBlank()) {
+                return header.trim();
+            }
+        }
+        return remote;
+    }
+}
@@ -0,0 +1,139 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import com.foxsoftware.foxblog.entity.AuthChallenge;
+import com.foxsoftware.foxblog.repository.AuthChallengeRepository;
+import com.foxsoftware.foxblog.util.UuidUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库挑战存储（多实例共享，登录与 OTP 校验可落在不同实例上，无需会话粘滞）
+ *  - 尝试次数用条件 UPDATE 原子递增
+ *  - 过期清理按 expire_at 索引分批 DELETE ... LIMIT，直到不足一批
+ *  - 容量按估算行数判断：定期（count-refresh-ms）用有界 COUNT 校准，其间按本实例的插入 / 删除增减；
+ *    估算达到上限时才清理并精确复核。其他实例的写入在下次校准前不可见，属于软上限
+ *  - SETUP 挑战的临时 secret 会落库，绑定完成或过期后随行删除
+ */
+@Slf4j
+public class DatabaseChallengeStore implements ChallengeStore {
+
+    private final AuthChallengeRepository repository;
+    private final int capacity;
+    private final int deleteBatchSize;
+    private final long countRefreshNanos;
+    private final ChallengeStoreMetrics metrics;
+
+    // 估算行数：登录路径与指标都读它，不每次查库
+    private final AtomicLong approxCount = new AtomicLong();
+    private volatile long countedAtNanos;
+    private volatile boolean counted;
+
+    public DatabaseChallengeStore(AuthChallengeRepository repository, int capacity, int deleteBatchSize,
+                                  long countRefreshMillis, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.capacity = capacity;
+        this.deleteBatchSize = deleteBatchSize;
+        this.countRefreshNanos = TimeUnit.MILLISECONDS.toNanos(countRefreshMillis);
+        this.metrics = new ChallengeStoreMetrics(meterRegistry, "database", this);
+    }
+
+    @Override
+    public boolean offer(LoginChallenge challenge) {
+        if (estimate() >= capacity) {
+            // sweepExpired 结束时会精确复核
+            sweepExpired(Instant.now());
+            if (approxCount.get() >= capacity) {
+                if (metrics.reject()) {
+                    log.warn("[AUTH] challenge store full capacity={} rejectedTotal={}", capacity, metrics.rejected.sum());
+                }
+                return false;
+            }
+        }
+        repository.insert(UuidUtils.toBytes(challenge.getId()),
+                challenge.getAdminId(),
+                challenge.getType().name(),
+                toLocal(challenge.getCreatedAt()),
+                toLocal(challenge.getExpireAt()),
+                challenge.getOriginIp(),
+                challenge.getTempSecret());
+        approxCount.incrementAndGet();
+        metrics.created.increment();
+        return true;
+    }
+
+    @Override
+    public LoginChallenge get(UUID id) {
+        return repository.findById(id).map(DatabaseChallengeStore::toChallenge).orElse(null);
+    }
+
+    @Override
+    public int recordAttempt(UUID id, int maxAttempts) {
+        if (repository.incrementAttempts(id, maxAttempts) == 0) return -1;
+        Integer used = repository.findAttempts(id);
+        // 递增后被并发删除（登录成功 / 清理）：视为无剩余次数
+        return used == null ? 0 : Math.max(0, maxAttempts - used);
+    }
+
+    @Override
+    public boolean remove(UUID id) {
+        if (repository.deleteChallenge(id) == 0) return false;
+        approxCount.updateAndGet(c -> Math.max(0, c - 1));
+        return true;
+    }
+
+    @Override
+    public int sweepExpired(Instant now) {
+        LocalDateTime cutoff = toLocal(now);
+        int removed = 0;
+        int n;
+        do {
+            n = repository.deleteExpiredBatch(cutoff, deleteBatchSize);
+            removed += n;
+        } while (n >= deleteBatchSize);
+        if (removed > 0) metrics.expired.add(removed);
+        recount();
+        return removed;
+    }
+
+    @Override
+    public long size() {
+        return approxCount.get();
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private long estimate() {
+        if (!counted || System.nanoTime() - countedAtNanos >= countRefreshNanos) {
+            return recount();
+        }
+        return approxCount.get();
+    }
+
+    private long recount() {
+        long c = repository.countUpTo(capacity);
+        approxCount.set(c);
+        countedAtNanos = System.nanoTime();
+        counted = true;
+        return c;
+    }
+
+    private static LoginChallenge toChallenge(AuthChallenge c) {
+        return new LoginChallenge(c.getId(), c.getAdminId(), LoginChallenge.Type.valueOf(c.getType()),
+                toInstant(c.getCreatedAt()), toInstant(c.getExpireAt()), c.getOriginIp(), c.getTempSecret());
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,125 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单实例内存挑战存储（默认；多实例部署需会话粘滞，或改用 DatabaseChallengeStore）
+ *  - 按 id 的 ConcurrentHashMap + 按 (expireAt, id) 排序的跳表索引
+ *  - 清理从跳表头部开始，遇到第一个未过期的即停止：只触及已过期条目
+ *  - 容量用计数器预占（CAS），满时先清理一次过期条目，仍满则拒绝
+ */
+@Slf4j
+public class InMemoryChallengeStore implements ChallengeStore {
+
+    private static final Comparator<Entry> BY_EXPIRY = Comparator
+            .comparing((Entry e) -> e.challenge.getExpireAt())
+            .thenComparing(e -> e.challenge.getId());
+
+    private final int capacity;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final AtomicInteger size = new AtomicInteger();
+    private final ChallengeStoreMetrics metrics;
+
+    public InMemoryChallengeStore(int capacity, MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.metrics = new ChallengeStoreMetrics(meterRegistry, "memory", this);
+    }
+
+    @Override
+    public boolean offer(LoginChallenge challenge) {
+        if (!reserve()) {
+            sweepExpired(Instant.now());
+            if (!reserve()) {
+                if (metrics.reject()) {
+                    log.warn("[AUTH] challenge store full capacity={} rejectedTotal={}", capacity, metrics.rejected.sum());
+                }
+                return false;
+            }
+        }
+        Entry e = new Entry(challenge);
+        entries.put(challenge.getId(), e);
+        byExpiry.add(e);
+        metrics.created.increment();
+        return true;
+    }
+
+    @Override
+    public LoginChallenge get(UUID id) {
+        Entry e = entries.get(id);
+        return e == null ? null : e.challenge;
+    }
+
+    @Override
+    public int recordAttempt(UUID id, int maxAttempts) {
+        Entry e = entries.get(id);
+        if (e == null) return -1;
+        while (true) {
+            int used = e.attempts.get();
+            if (used >= maxAttempts) return -1;
+            if (e.attempts.compareAndSet(used, used + 1)) return maxAttempts - used - 1;
+        }
+    }
+
+    @Override
+    public boolean remove(UUID id) {
+        Entry e = entries.remove(id);
+        if (e == null) return false;
+        release(e);
+        return true;
+    }
+
+    @Override
+    public int sweepExpired(Instant now) {
+        int removed = 0;
+        // 跳表迭代器升序且弱一致，可与并发写入同时进行
+        for (Entry e : byExpiry) {
+            if (!e.challenge.isExpired(now)) break;
+            // 与 remove 竞争时只有一方能从 entries 中移除，计数不会重复扣减
+            if (entries.remove(e.challenge.getId(), e)) {
+                release(e);
+                removed++;
+            }
+        }
+        if (removed > 0) metrics.expired.add(removed);
+        return removed;
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private boolean reserve() {
+        while (true) {
+            int cur = size.get();
+            if (cur >= capacity) return false;
+            if (size.compareAndSet(cur, cur + 1)) return true;
+        }
+    }
+
+    private void release(Entry e) {
+        byExpiry.remove(e);
+        size.decrementAndGet();
+    }
+
+    private static final class Entry {
+        private final LoginChallenge challenge;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Entry(LoginChallenge challenge) {
+            this.challenge = challenge;
+        }
+    }
+}
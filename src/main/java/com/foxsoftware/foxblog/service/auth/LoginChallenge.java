@@ -0,0 +1,40 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 登录挑战（密码校验通过后、OTP 校验前的中间状态）
+ * 不可变；尝试次数由 ChallengeStore 维护，保证并发校验时计数原子。
+ */
+@Getter
+@AllArgsConstructor
+public final class LoginChallenge {
+
+    public enum Type {
+        SETUP, LOGIN
+    }
+
+    private final UUID id;
+    private final Long adminId;
+    private final Type type;
+    private final Instant createdAt;
+    private final Instant expireAt;
+    private final String originIp;
+    private final String tempSecret; // 仅 SETUP
+
+    public static LoginChallenge setup(UUID id, Long adminId, String secret, Instant now, Instant expire, String ip) {
+        return new LoginChallenge(id, adminId, Type.SETUP, now, expire, ip, secret);
+    }
+
+    public static LoginChallenge login(UUID id, Long adminId, Instant now, Instant expire, String ip) {
+        return new LoginChallenge(id, adminId, Type.LOGIN, now, expire, ip, null);
+    }
+
+    public boolean isExpired(Instant now) {
+        return now.isAfter(expireAt);
+    }
+}
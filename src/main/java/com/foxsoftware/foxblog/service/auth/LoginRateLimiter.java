@@ -0,0 +1,179 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录限流（令牌桶，按 IP 与用户名各一套），在校验密码（BCrypt）之前执行
+ *  - 每个桶是一个 AtomicLong：高 44 位为上次取令牌的时间（毫秒，相对启动），低 20 位为千分之一令牌数
+ *    取令牌只有一次 CAS，无锁；被拒绝时不写入，经过的时间持续累计
+ *  - 键数量有上限：满了先就地移除已补满的桶（至多每秒一次），仍然满时新出现的键共用一个溢出桶
+ *    溢出桶容量与速率为单键的 OVERFLOW_FACTOR 倍，少量攻击者占满键表时不至于把所有新用户一起锁住
+ *  - 已补满的桶与新建等价，由 LoginRateLimitCleanupJob 定期移除
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+    private static final long MAX_BURST = TOKEN_MASK / ONE_TOKEN;
+    private static final int OVERFLOW_FACTOR = 50;
+    private static final long SWEEP_INTERVAL_MS = 1000;
+
+    private final boolean enabled;
+    private final BucketMap byIp;
+    private final BucketMap byUser;
+    private final long startNanos = System.nanoTime();
+
+    public LoginRateLimiter(@Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login.rate-limit.ip.burst:10}") int ipBurst,
+                            @Value("${security.login.rate-limit.ip.per-minute:10}") int ipPerMinute,
+                            @Value("${security.login.rate-limit.user.burst:5}") int userBurst,
+                            @Value("${security.login.rate-limit.user.per-minute:5}") int userPerMinute,
+                            @Value("${security.login.rate-limit.max-keys:10000}") int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.byIp = new BucketMap("ip", ipBurst, ipPerMinute, maxKeys, meterRegistry);
+        this.byUser = new BucketMap("user", userBurst, userPerMinute, maxKeys, meterRegistry);
+    }
+
+    /**
+     * 为一次登录尝试各取一个令牌（先 IP 后用户名）
+     * @return 0 表示放行；否则为建议的重试等待秒数
+     */
+    public long tryAcquire(String ip, String username) {
+        return tryAcquire(ip, username, nowMillis());
+    }
+
+    long tryAcquire(String ip, String username, long now) {
+        if (!enabled) return 0;
+        long waitMs = byIp.tryAcquire(ip == null ? "-" : ip, now);
+        if (waitMs == 0) {
+            waitMs = byUser.tryAcquire(username.toLowerCase(Locale.ROOT), now);
+        }
+        return waitMs == 0 ? 0 : Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMs + 999));
+    }
+
+    /**
+     * 供定时任务调用：移除已补满的桶
+     * @return 移除的键数
+     */
+    public int evictIdle() {
+        return evictIdle(nowMillis());
+    }
+
+    int evictIdle(long now) {
+        return byIp.evictFull(now) + byUser.evictFull(now);
+    }
+
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // ========== 令牌桶 ==========
+
+    private static final class BucketMap {
+        private final String name;
+        private final long capacity;      // 千分之一令牌
+        private final double refillPerMs; // 千分之一令牌 / 毫秒
+        private final long overflowCapacity;
+        private final double overflowRefillPerMs;
+        private final int maxKeys;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow;
+        private final AtomicLong lastSweep = new AtomicLong(-SWEEP_INTERVAL_MS);
+        private final Counter shed;
+
+        private BucketMap(String name, int burst, int perMinute, int maxKeys, MeterRegistry registry) {
+            this.name = name;
+            this.capacity = Math.min(Math.max(1, burst), MAX_BURST) * ONE_TOKEN;
+            this.refillPerMs = Math.max(1, perMinute) * ONE_TOKEN / 60_000.0;
+            this.overflowCapacity = Math.min(capacity * OVERFLOW_FACTOR, MAX_BURST * ONE_TOKEN);
+            this.overflowRefillPerMs = refillPerMs * OVERFLOW_FACTOR;
+            this.maxKeys = maxKeys;
+            this.overflow = new AtomicLong(pack(0, overflowCapacity));
+            this.shed = Counter.builder("auth.login.shed")
+                    .description("被限流拒绝的登录请求")
+                    .tag("key", name)
+                    .register(registry);
+            Gauge.builder("auth.login.rate-limit.keys", buckets, Map::size)
+                    .description("限流跟踪中的键数")
+                    .tag("key", name)
+                    .register(registry);
+        }
+
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys) {
+                    sweepIfDue(now);
+                }
+                bucket = buckets.size() < maxKeys
+                        ? buckets.computeIfAbsent(key, k -> new AtomicLong(full(now)))
+                        : overflow;
+            }
+            boolean shared = bucket == overflow;
+            long cap = shared ? overflowCapacity : capacity;
+            double rate = shared ? overflowRefillPerMs : refillPerMs;
+            while (true) {
+                long state = bucket.get();
+                long tokens = refilled(state, now, cap, rate);
+                if (tokens < ONE_TOKEN) {
+                    shed.increment();
+                    log.debug("[AUTH] login shed by {} limit key={} overflow={}", name, key, shared);
+                    return (long) Math.ceil((ONE_TOKEN - tokens) / rate);
+                }
+                if (bucket.compareAndSet(state, pack(now, tokens - ONE_TOKEN))) return 0;
+            }
+        }
+
+        /**
+         * 键表已满时就地清理；多个线程同时遇到时只有一个执行，且至多每 SWEEP_INTERVAL_MS 一次
+         */
+        private void sweepIfDue(long now) {
+            long last = lastSweep.get();
+            if (now - last < SWEEP_INTERVAL_MS || !lastSweep.compareAndSet(last, now)) return;
+            int removed = evictFull(now);
+            if (removed > 0) {
+                log.debug("[AUTH] {} rate-limit table full, evicted {} idle keys", name, removed);
+            }
+        }
+
+        int evictFull(long now) {
+            int removed = 0;
+            for (Map.Entry<String, AtomicLong> e : buckets.entrySet()) {
+                if (refilled(e.getValue().get(), now, capacity, refillPerMs) >= capacity && buckets.remove(e.getKey(), e.getValue())) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private static long refilled(long state, long now, long cap, double rate) {
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            return Math.min(cap, tokens + (long) (elapsed * rate));
+        }
+
+        private long full(long now) {
+            return pack(now, capacity);
+        }
+
+        private static long pack(long now, long tokens) {
+            return (now << TOKEN_BITS) | tokens;
+        }
+    }
+}
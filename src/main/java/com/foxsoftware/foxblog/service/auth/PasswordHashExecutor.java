@@ -0,0 +1,99 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import com.foxsoftware.foxblog.service.AdminAuthService.AuthException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码校验专用线程池
+ *  - BCrypt 是刻意的慢计算，放在独立的小线程池里（CPU 核数的一部分），请求线程只等待结果
+ *    登录被撞库时最多占用这几个核，公开读接口的延迟不受影响
+ *  - 队列有界，满了立即拒绝（AbortPolicy），不排长队；等待超时同样放弃
+ *  - 拒绝 / 超时 / 等待被中断抛 AuthException.busy()（503）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordHashExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.cpu-fraction:0.25}")
+    private double cpuFraction;
+
+    @Value("${security.password.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${security.password.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * cpuFraction));
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        rejected = Counter.builder("auth.password.rejected")
+                .description("线程池满或超时而放弃的密码校验")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("等待中的密码校验")
+                .register(meterRegistry);
+        log.info("[AUTH] password hash pool threads={} queue={}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在专用线程池上执行 passwordEncoder.matches
+     * @return 校验结果
+     * @throws AuthException 线程池已满、等待超时或被中断（AUTH_BUSY）
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw AuthException.busy();
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            log.warn("[AUTH] password check timed out after {}ms", timeoutMs);
+            throw AuthException.busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw AuthException.busy();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码校验失败", e.getCause());
+        }
+    }
+}
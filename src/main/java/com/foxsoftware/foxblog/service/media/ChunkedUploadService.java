@@ -0,0 +1,400 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.dto.media.MediaUploadResponse;
+import com.foxsoftware.foxblog.dto.media.UploadSessionCreateRequest;
+import com.foxsoftware.foxblog.dto.media.UploadSessionResponse;
+import com.foxsoftware.foxblog.exception.BusinessException;
+import com.foxsoftware.foxblog.exception.ErrorCode;
+import com.foxsoftware.foxblog.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 分片上传（断点续传）
+ * 流程：
+ *  1) create：按 totalSize 预分配临时文件，返回 sessionId / chunkSize / chunkCount
+ *  2) writeChunk：PUT 原始字节 + offset，按位置写入（FileChannel 定位写，分片可并行、可重传）
+ *  3) complete：全部分片到齐后顺序读一遍计算 sha256，交给 MediaService.register 去重入库
+ * 分片写入持有会话读写锁的读锁（可并行），complete / abort 持有写锁：等进行中的写入结束后才计算摘要、关闭通道。
+ * 会话仅存内存；超过 session-ttl 未活动的会话及遗留 .part 文件由 ChunkedUploadCleanupJob 清理。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_MISSING_REPORTED = 1000;
+
+    private final MediaService mediaService;
+
+    @Value("${app.media.upload.tmp-dir:media-uploads}")
+    private String tmpDir;
+
+    @Value("${app.media.upload.chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.media.upload.max-size:4294967296}")
+    private long maxSize;
+
+    @Value("${app.media.upload.max-sessions:64}")
+    private int maxSessions;
+
+    @Value("${app.media.upload.session-ttl-seconds:86400}")
+    private long sessionTtlSeconds;
+
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    // 会话数上限用计数器预占（CAS），会话移除时释放
+    private final AtomicInteger sessionCount = new AtomicInteger();
+
+    // ================== 公开流程方法 ==================
+
+    public UploadSessionResponse create(UploadSessionCreateRequest req) {
+        long total = req.getTotalSize() == null ? -1 : req.getTotalSize();
+        if (total <= 0 || total > maxSize) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "totalSize 非法，需在 1~" + maxSize + " 之间");
+        }
+        int chunkSize = req.getChunkSize() == null ? defaultChunkSize : req.getChunkSize();
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "chunkSize 需在 256KB~64MB 之间");
+        }
+        if (!reserveSlot()) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "进行中的上传会话过多，请稍后再试");
+        }
+
+        UUID id = UUID.randomUUID();
+        Path file = tmpRoot().resolve(id + ".part");
+        try {
+            Files.createDirectories(file.getParent());
+            // 预分配（稀疏文件），后续分片按位置写入
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(total);
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int chunkCount = (int) ((total + chunkSize - 1) / chunkSize);
+            Session s = new Session(id, file, channel, req.getFileName(), req.getMimeType(), total, chunkSize, chunkCount);
+            sessions.put(id, s);
+            log.info("[MEDIA] upload session created id={} size={} chunks={}", id, total, chunkCount);
+            return toResponse(s);
+        } catch (IOException e) {
+            sessionCount.decrementAndGet();
+            deleteQuietly(file);
+            throw new RuntimeException("创建上传会话失败", e);
+        }
+    }
+
+    public UploadSessionResponse status(UUID id) {
+        return toResponse(require(id));
+    }
+
+    /**
+     * 写入一个分片；offset 必须对齐 chunkSize，长度必须等于该分片应有长度
+     */
+    public UploadSessionResponse writeChunk(UUID id, long offset, InputStream body) {
+        Session s = require(id);
+        if (offset < 0 || offset % s.chunkSize != 0 || offset >= s.totalSize) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "offset 未对齐分片大小或越界");
+        }
+        int index = (int) (offset / s.chunkSize);
+        long expected = Math.min(s.chunkSize, s.totalSize - offset);
+        s.touch();
+
+        Lock shared = s.io.readLock();
+        shared.lock();
+        try {
+            // 持锁后再检查：complete / abort 已开始时不再写入
+            if (!s.channel.isOpen()) {
+                throw BusinessException.of(ErrorCode.UPLOAD_SESSION_NOT_FOUND, "上传会话不存在或已过期");
+            }
+            if (s.finalizing.get()) {
+                throw BusinessException.of(ErrorCode.INVALID_REQUEST, "上传会话正在合并");
+            }
+            writeAt(s, offset, expected, body);
+            s.markReceived(index);
+        } finally {
+            shared.unlock();
+        }
+        return toResponse(s);
+    }
+
+    public MediaUploadResponse complete(UUID id) {
+        Session s = require(id);
+        if (!s.finalizing.compareAndSet(false, true)) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "上传会话正在合并");
+        }
+        String sha256;
+        // 写锁：等待进行中的分片写入结束，摘要与关闭期间不再有写入
+        s.io.writeLock().lock();
+        try {
+            if (!s.channel.isOpen()) {
+                throw BusinessException.of(ErrorCode.UPLOAD_SESSION_NOT_FOUND, "上传会话不存在或已过期");
+            }
+            if (!s.missing(1).isEmpty()) {
+                s.finalizing.set(false);
+                throw BusinessException.of(ErrorCode.INVALID_REQUEST, "仍有分片未上传");
+            }
+            s.channel.force(false);
+            sha256 = digest(s.channel);
+            closeQuietly(s);
+        } catch (IOException e) {
+            s.finalizing.set(false);
+            throw new RuntimeException("合并上传失败", e);
+        } finally {
+            s.io.writeLock().unlock();
+        }
+        try {
+            MediaUploadResponse result = mediaService.register(s.file, s.fileName, s.mimeType, sha256, s.totalSize);
+            log.info("[MEDIA] upload session completed id={} media={} reused={}", id, result.getId(), result.isReused());
+            return result;
+        } finally {
+            // 入库失败同样结束会话：通道已关闭，客户端需重新创建会话
+            if (sessions.remove(id, s)) sessionCount.decrementAndGet();
+            deleteQuietly(s.file);
+        }
+    }
+
+    public void abort(UUID id) {
+        Session s = sessions.remove(id);
+        if (s != null) {
+            sessionCount.decrementAndGet();
+            s.io.writeLock().lock();
+            try {
+                closeQuietly(s);
+            } finally {
+                s.io.writeLock().unlock();
+            }
+            deleteQuietly(s.file);
+        }
+    }
+
+    /**
+     * 供定时任务调用：清理超时会话，以及重启前遗留的 .part 文件
+     */
+    public int sweepExpired() {
+        long deadline = System.currentTimeMillis() - sessionTtlSeconds * 1000;
+        int removed = 0;
+        for (Session s : sessions.values()) {
+            if (s.lastActivity >= deadline || s.finalizing.get()) continue;
+            // 仍有写入进行中的会话跳过，下一轮再判断
+            if (!s.io.writeLock().tryLock()) continue;
+            try {
+                if (sessions.remove(s.id, s)) {
+                    sessionCount.decrementAndGet();
+                    closeQuietly(s);
+                    deleteQuietly(s.file);
+                    removed++;
+                }
+            } finally {
+                s.io.writeLock().unlock();
+            }
+        }
+        Path root = tmpRoot();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.list(root)) {
+                for (Path p : (Iterable<Path>) files::iterator) {
+                    String name = p.getFileName().toString();
+                    if (!name.endsWith(".part")) continue;
+                    UUID sid = parseSessionId(name);
+                    if (sid != null && sessions.containsKey(sid)) continue;
+                    if (Files.getLastModifiedTime(p).toMillis() < deadline) {
+                        deleteQuietly(p);
+                        removed++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("[MEDIA] scan upload tmp dir failed: {}", e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    // ================== 内部逻辑 ==================
+
+    private boolean reserveSlot() {
+        while (true) {
+            int cur = sessionCount.get();
+            if (cur >= maxSessions) return false;
+            if (sessionCount.compareAndSet(cur, cur + 1)) return true;
+        }
+    }
+
+    private void writeAt(Session s, long offset, long expected, InputStream body) {
+        long written = 0;
+        try {
+            ReadableByteChannel in = Channels.newChannel(body);
+            ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER_SIZE);
+            while (written < expected) {
+                buf.clear();
+                buf.limit((int) Math.min(buf.capacity(), expected - written));
+                int n = in.read(buf);
+                if (n < 0) break;
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    written += s.channel.write(buf, offset + written);
+                }
+            }
+            if (written != expected || in.read(ByteBuffer.allocate(1)) >= 0) {
+                throw BusinessException.of(ErrorCode.INVALID_REQUEST,
+                        "分片长度不符，期望 " + expected + " 字节");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("写入分片失败", e);
+        }
+    }
+
+    private Session require(UUID id) {
+        Session s = sessions.get(id);
+        if (s == null) {
+            throw BusinessException.of(ErrorCode.UPLOAD_SESSION_NOT_FOUND, "上传会话不存在或已过期");
+        }
+        return s;
+    }
+
+    private String digest(FileChannel channel) throws IOException {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buf = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            long pos = 0;
+            int n;
+            while ((n = channel.read(buf, pos)) > 0) {
+                pos += n;
+                buf.flip();
+                md.update(buf);
+                buf.clear();
+            }
+            return HashUtils.toHex(md.digest());
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private UploadSessionResponse toResponse(Session s) {
+        return UploadSessionResponse.builder()
+                .sessionId(s.id.toString())
+                .totalSize(s.totalSize)
+                .chunkSize(s.chunkSize)
+                .chunkCount(s.chunkCount)
+                .receivedChunks(s.receivedCount())
+                .missingChunks(s.missing(MAX_MISSING_REPORTED))
+                .expireAt(Instant.ofEpochMilli(s.lastActivity).plusSeconds(sessionTtlSeconds))
+                .build();
+    }
+
+    private Path tmpRoot() {
+        return Paths.get(tmpDir).toAbsolutePath();
+    }
+
+    private UUID parseSessionId(String fileName) {
+        try {
+            return UUID.fromString(fileName.substring(0, fileName.length() - ".part".length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void closeQuietly(Session s) {
+        try {
+            s.channel.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    private void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            log.warn("[MEDIA] delete tmp file failed {}: {}", p, e.getMessage());
+        }
+    }
+
+    // ================== 数据结构 ==================
+
+    private static final class Session {
+        private final UUID id;
+        private final Path file;
+        private final FileChannel channel;
+        private final String fileName;
+        private final String mimeType;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final BitSet received;
+        // 分片可并行上传（虚拟线程下 synchronized 争用会钉住载体线程，改用 ReentrantLock）
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantReadWriteLock io = new ReentrantReadWriteLock();
+        private final AtomicBoolean finalizing = new AtomicBoolean(false);
+        private volatile long lastActivity;
+
+        private Session(UUID id, Path file, FileChannel channel, String fileName, String mimeType,
+                        long totalSize, int chunkSize, int chunkCount) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.fileName = fileName;
+            this.mimeType = mimeType;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.received = new BitSet(chunkCount);
+            this.lastActivity = System.currentTimeMillis();
+        }
+
+        void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+
+        void markReceived(int index) {
+            lock.lock();
+            try {
+                received.set(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int receivedCount() {
+            lock.lock();
+            try {
+                return received.cardinality();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<Integer> missing(int limit) {
+            lock.lock();
+            try {
+                List<Integer> out = new ArrayList<>();
+                for (int i = received.nextClearBit(0); i < chunkCount && out.size() < limit; i = received.nextClearBit(i + 1)) {
+                    out.add(i);
+                }
+                return out;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
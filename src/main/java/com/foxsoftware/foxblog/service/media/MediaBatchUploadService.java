@@ -0,0 +1,99 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.dto.media.MediaBatchUploadResponse;
+import com.foxsoftware.foxblog.dto.media.MediaUploadResponse;
+import com.foxsoftware.foxblog.exception.BusinessException;
+import com.foxsoftware.foxblog.exception.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 多文件批量上传
+ *  - 每个文件一个虚拟线程，哈希 + 落盘 + 去重入库并行进行
+ *  - 全局信号量限制同时处理的文件数（跨请求），避免批量上传占满磁盘 IO 和连接池
+ *  - 单个文件失败不影响其他文件，结果按请求顺序逐个返回
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaBatchUploadService {
+
+    private final MediaService mediaService;
+
+    @Value("${app.media.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.media.batch.max-files:50}")
+    private int maxFiles;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    public MediaBatchUploadResponse uploadAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "未包含任何文件");
+        }
+        if (files.size() > maxFiles) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "单次最多上传 " + maxFiles + " 个文件");
+        }
+
+        List<Future<MediaUploadResponse>> futures = new ArrayList<>(files.size());
+        // close() 会等待全部任务结束；请求返回前 MultipartFile 仍然有效
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile f : files) {
+                futures.add(exec.submit(() -> uploadOne(f)));
+            }
+        }
+
+        List<MediaBatchUploadResponse.Item> items = new ArrayList<>(files.size());
+        int failed = 0;
+        for (int i = 0; i < files.size(); i++) {
+            MediaBatchUploadResponse.Item.ItemBuilder item = MediaBatchUploadResponse.Item.builder()
+                    .index(i)
+                    .fileName(files.get(i).getOriginalFilename());
+            try {
+                item.media(futures.get(i).get());
+            } catch (ExecutionException e) {
+                failed++;
+                item.error(errorMessage(e.getCause()));
+                log.warn("[MEDIA] batch item failed name={} err={}", files.get(i).getOriginalFilename(),
+                        e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("批量上传被中断", e);
+            }
+            items.add(item.build());
+        }
+        return MediaBatchUploadResponse.builder()
+                .succeeded(files.size() - failed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+
+    private MediaUploadResponse uploadOne(MultipartFile file) throws InterruptedException {
+        permits.acquire();
+        try {
+            return mediaService.upload(file);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private String errorMessage(Throwable t) {
+        if (t instanceof BusinessException) return t.getMessage();
+        return t.getMessage() != null ? t.getMessage() : "上传失败";
+    }
+}
@@ -0,0 +1,169 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.entity.Media;
+import com.foxsoftware.foxblog.entity.MediaVariant;
+import com.foxsoftware.foxblog.repository.MediaRepository;
+import com.foxsoftware.foxblog.repository.MediaVariantRepository;
+import com.foxsoftware.foxblog.storage.MediaStorage;
+import com.foxsoftware.foxblog.storage.StoredObject;
+import com.foxsoftware.foxblog.util.UuidUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 孤儿媒体清理
+ *  - 记录：ref_count = 0 且最近引用（创建 / 去重复用）超过宽限期的 media，小批量条件删除（再次确认无 post_media 引用），随后删除原文件与衍生图文件
+ *    宽限期在数据库内按 NOW(6) 计算，与写入 last_referenced_at 的 CURRENT_TIMESTAMP(6) 同一时钟
+ *  - 文件只在最后修改时间也早于宽限期时删除：同内容的新上传命中已有文件会刷新修改时间，
+ *    记录删除后、新记录写入前被复用的文件因此不会被删掉
+ *  - 文件：每轮按顺序巡检若干存储分区，找出超过宽限期且没有任何 media / media_variant 记录指向的文件
+ *    （默认只记录日志，开启 delete-stray-files 后才删除）
+ *  - 所有删除按 max-deletes-per-second 限速，避免清理挤占在线 IO
+ * 由 OrphanMediaSweepJob 定时调用，单线程执行。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaGarbageCollector {
+
+    private static final int PATH_LOOKUP_CHUNK = 200;
+
+    private final MediaRepository mediaRepository;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final MediaStorage mediaStorage;
+
+    @Value("${app.media.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${app.media.gc.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.media.gc.max-deletes-per-second:20}")
+    private int maxDeletesPerSecond;
+
+    @Value("${app.media.gc.delete-stray-files:false}")
+    private boolean deleteStrayFiles;
+
+    @Value("${app.media.gc.partitions-per-run:4}")
+    private int partitionsPerRun;
+
+    // 文件巡检游标：下一次从第几个分区开始
+    private int partitionCursor;
+    private long nextDeleteAtNanos;
+
+    /**
+     * 清理一批无引用的媒体记录及其文件
+     * @return 删除的记录数
+     */
+    public int sweepRows() {
+        List<Media> candidates = mediaRepository.findOrphanCandidates(graceHours, batchSize);
+        Instant fileCutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        int deleted = 0;
+        for (Media m : candidates) {
+            List<String> paths = new ArrayList<>();
+            paths.add(m.getStoragePath());
+            mediaVariantRepository.findByMediaIdOrderByWidthAsc(m.getId()).stream()
+                    .map(MediaVariant::getStoragePath)
+                    .forEach(paths::add);
+
+            byte[] id = UuidUtils.toBytes(m.getId());
+            if (mediaRepository.deleteIfUnreferenced(id, graceHours) == 0) {
+                // 选中后被去重复用，或 ref_count 与 post_media 不一致：按实际引用重算（复用时为 0，无副作用）
+                mediaRepository.recountRefs(id);
+                log.info("[MEDIA] orphan candidate kept id={} (reused or ref_count repaired)", m.getId());
+                continue;
+            }
+            deleted++;
+            // 记录已删（media_variant 级联），文件若被其他记录共用（CAS 同内容）则保留
+            Set<String> stillUsed = referencedPaths(paths);
+            for (String p : paths) {
+                if (!stillUsed.contains(p)) deleteFile(p, fileCutoff);
+            }
+            log.info("[MEDIA] orphan removed id={} path={}", m.getId(), m.getStoragePath());
+        }
+        return deleted;
+    }
+
+    /**
+     * 巡检若干分区，找出没有记录指向的文件
+     * @return 发现的孤儿文件数
+     */
+    public int sweepStrayFiles() {
+        List<String> partitions = mediaStorage.listPartitions();
+        if (partitions.isEmpty()) return 0;
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+        int found = 0;
+        for (int i = 0; i < Math.min(partitionsPerRun, partitions.size()); i++) {
+            if (partitionCursor >= partitions.size()) partitionCursor = 0;
+            String partition = partitions.get(partitionCursor++);
+
+            List<String> old = mediaStorage.listObjects(partition).stream()
+                    .filter(o -> o.getLastModified().isBefore(cutoff))
+                    .map(StoredObject::getStoragePath)
+                    .toList();
+            for (int from = 0; from < old.size(); from += PATH_LOOKUP_CHUNK) {
+                List<String> chunk = old.subList(from, Math.min(old.size(), from + PATH_LOOKUP_CHUNK));
+                Set<String> referenced = referencedPaths(chunk);
+                for (String p : chunk) {
+                    if (referenced.contains(p)) continue;
+                    found++;
+                    if (deleteStrayFiles) {
+                        if (deleteFile(p, cutoff)) log.info("[MEDIA] stray file removed {}", p);
+                    } else {
+                        log.warn("[MEDIA] stray file (no media row) {}", p);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private Set<String> referencedPaths(Collection<String> paths) {
+        Set<String> out = new HashSet<>(mediaRepository.findExistingStoragePaths(paths));
+        out.addAll(mediaVariantRepository.findExistingStoragePaths(paths));
+        return out;
+    }
+
+    /**
+     * 删除前再确认修改时间：列出 / 选中之后被复用（刷新了修改时间）的文件保留
+     */
+    private boolean deleteFile(String storagePath, Instant cutoff) {
+        throttle();
+        try {
+            boolean deleted = mediaStorage.deleteIfOlderThan(storagePath, cutoff);
+            if (!deleted) log.info("[MEDIA] file kept (recently reused or missing) path={}", storagePath);
+            return deleted;
+        } catch (Exception e) {
+            log.warn("[MEDIA] delete file failed path={} err={}", storagePath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 简单节流：相邻两次删除至少间隔 1/maxDeletesPerSecond 秒
+     */
+    private void throttle() {
+        if (maxDeletesPerSecond <= 0) return;
+        long interval = TimeUnit.SECONDS.toNanos(1) / maxDeletesPerSecond;
+        long now = System.nanoTime();
+        long wait = nextDeleteAtNanos - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            now = System.nanoTime();
+        }
+        nextDeleteAtNanos = now + interval;
+    }
+}
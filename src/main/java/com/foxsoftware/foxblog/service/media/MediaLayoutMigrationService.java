@@ -0,0 +1,108 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.dto.media.LayoutMigrationResult;
+import com.foxsoftware.foxblog.entity.Media;
+import com.foxsoftware.foxblog.exception.BusinessException;
+import com.foxsoftware.foxblog.exception.ErrorCode;
+import com.foxsoftware.foxblog.repository.MediaRepository;
+import com.foxsoftware.foxblog.storage.MediaLayout;
+import com.foxsoftware.foxblog.storage.MediaStorage;
+import com.foxsoftware.foxblog.util.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 媒体布局迁移：DATED -> CAS
+ * 每批：
+ *  1) 为每个文件在 CAS 路径建立硬链接（或复制），缺失哈希时流式补算
+ *  2) 单事务批量改写 media.storage_path
+ *  3) 提交成功后才删除旧路径，失败时旧文件仍可用
+ * 可重复执行；已在 CAS 下的记录不会再次处理。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaLayoutMigrationService {
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public LayoutMigrationResult migrateToCas(int batchSize) {
+        if (mediaStorage.layout() != MediaLayout.CAS) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "当前存储布局不是 CAS，请先设置 app.media.layout=cas");
+        }
+        if (batchSize <= 0 || batchSize > 5000) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "batchSize 需在 1~5000 之间");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw BusinessException.of(ErrorCode.INVALID_REQUEST, "迁移正在进行中");
+        }
+        try {
+            UUID cursor = new UUID(0L, 0L);
+            int batches = 0;
+            long scanned = 0, migrated = 0, failed = 0;
+            while (true) {
+                List<Media> batch = mediaRepository.findLegacyLayoutBatch(cursor, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) break;
+                cursor = batch.get(batch.size() - 1).getId();
+                scanned += batch.size();
+                batches++;
+
+                List<Relocation> relocations = new ArrayList<>(batch.size());
+                for (Media m : batch) {
+                    try {
+                        String hash = m.getSha256Hash();
+                        if (hash == null || hash.isBlank()) {
+                            hash = HashUtils.sha256Hex(mediaStorage.resolve(m.getStoragePath()));
+                        }
+                        String casPath = mediaStorage.linkToContentAddress(m.getStoragePath(), hash);
+                        relocations.add(new Relocation(m.getId(), m.getStoragePath(), casPath, hash));
+                    } catch (Exception e) {
+                        failed++;
+                        log.warn("[MEDIA] migrate skip id={} path={} err={}", m.getId(), m.getStoragePath(), e.getMessage());
+                    }
+                }
+                if (relocations.isEmpty()) continue;
+
+                transactionTemplate.executeWithoutResult(tx -> {
+                    for (Relocation r : relocations) {
+                        mediaRepository.findById(r.id()).ifPresent(m -> {
+                            m.setStoragePath(r.casPath());
+                            m.setSha256Hash(r.hash());
+                        });
+                    }
+                });
+                for (Relocation r : relocations) {
+                    try {
+                        mediaStorage.delete(r.oldPath());
+                    } catch (Exception e) {
+                        log.warn("[MEDIA] migrate cleanup failed path={} err={}", r.oldPath(), e.getMessage());
+                    }
+                }
+                migrated += relocations.size();
+                log.info("[MEDIA] layout migration batch={} migrated={} failed={}", batches, migrated, failed);
+            }
+            return LayoutMigrationResult.builder()
+                    .batches(batches)
+                    .scanned(scanned)
+                    .migrated(migrated)
+                    .failed(failed)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private record Relocation(UUID id, String oldPath, String casPath, String hash) {}
+}
@@ -0,0 +1,129 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.entity.Media;
+import com.foxsoftware.foxblog.repository.MediaRepository;
+import com.foxsoftware.foxblog.storage.MediaStorage;
+import com.foxsoftware.foxblog.util.BlurHash;
+import com.foxsoftware.foxblog.util.ImageUtils;
+import com.foxsoftware.foxblog.util.Mp4Utils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * 媒体元数据提取（前端排版 / 占位用）
+ *  - 图片：显示宽高（按 EXIF 方向校正）、方向、BlurHash（降采样解码后计算）
+ *  - 视频：MP4 / MOV 头部的时长与画面尺寸，其他容器只标记完成
+ *  - 与衍生图共用 MediaTaskQueue（有界线程池 + 队列），满了丢弃，由 MediaMetadataResumeJob 补偿；结果一次 UPDATE 写回
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaMetadataService {
+
+    private static final int BLURHASH_SAMPLE_SIZE = 32;
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+
+    @Value("${app.media.metadata.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.media.metadata.threads:1}")
+    private int threads;
+
+    @Value("${app.media.metadata.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.media.metadata.blurhash-components-x:4}")
+    private int componentsX;
+
+    @Value("${app.media.metadata.blurhash-components-y:3}")
+    private int componentsY;
+
+    // 超过该像素数的原图不解码（只记录尺寸）
+    @Value("${app.media.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    private MediaTaskQueue queue;
+
+    @PostConstruct
+    void init() {
+        // 损坏文件同样标记完成，避免补偿任务反复重试
+        queue = new MediaTaskQueue("metadata", threads, queueCapacity, this::extract,
+                id -> mediaRepository.updateMetadata(id, null, null, null, null, null));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        queue.shutdown();
+    }
+
+    /**
+     * 为新媒体排队提取元数据；非图片 / 视频或队列已满时直接返回
+     */
+    public void schedule(UUID mediaId, String mimeType) {
+        if (!enabled || !supported(mimeType)) return;
+        queue.submit(mediaId);
+    }
+
+    /**
+     * 补偿扫描：把未提取的媒体重新排队，直到队列满
+     * @return 本次排队数量
+     */
+    public int resumePending(int batchSize) {
+        if (!enabled) return 0;
+        return queue.resume(batchSize, mediaRepository::findPendingMetadataIds);
+    }
+
+    // ========== 提取 ==========
+
+    private void extract(UUID mediaId) throws Exception {
+        Media media = mediaRepository.findById(mediaId).orElse(null);
+        if (media == null || media.isMetadataReady()) return;
+        Path file = mediaStorage.resolve(media.getStoragePath());
+        String mime = media.getMimeType();
+
+        if (mime.startsWith("video/")) {
+            Mp4Utils.VideoInfo info = Mp4Utils.probe(file);
+            if (info == null) {
+                mediaRepository.updateMetadata(mediaId, null, null, null, null, null);
+            } else {
+                mediaRepository.updateMetadata(mediaId, info.width(), info.height(), null, info.durationMs(), null);
+            }
+            return;
+        }
+
+        Dimension size = ImageUtils.readSize(file);
+        if (size == null) {
+            mediaRepository.updateMetadata(mediaId, null, null, null, null, null);
+            return;
+        }
+        int orientation = "image/jpeg".equals(mime) ? ImageUtils.readExifOrientation(file) : 1;
+        boolean swap = orientation >= 5;
+        int width = swap ? size.height : size.width;
+        int height = swap ? size.width : size.height;
+
+        String blurhash = null;
+        if ((long) size.width * size.height <= maxPixels) {
+            BufferedImage thumb = ImageUtils.readThumbnail(file, BLURHASH_SAMPLE_SIZE);
+            if (thumb != null) {
+                blurhash = BlurHash.encode(ImageUtils.applyOrientation(thumb, orientation), componentsX, componentsY);
+            }
+        }
+        mediaRepository.updateMetadata(mediaId, width, height, orientation, null, blurhash);
+        log.debug("[MEDIA] metadata ready id={} {}x{} o={}", mediaId, width, height, orientation);
+    }
+
+    private boolean supported(String mimeType) {
+        return mimeType != null && (mimeType.startsWith("image/") || mimeType.startsWith("video/"));
+    }
+}
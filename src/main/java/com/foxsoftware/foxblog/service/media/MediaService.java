@@ -1,8 +1,29 @@
 package com.foxsoftware.foxblog.service.media;
 
+import com.foxsoftware.foxblog.dto.media.MediaContent;
 import com.foxsoftware.foxblog.dto.media.MediaUploadResponse;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
+import java.util.UUID;
+
 public interface MediaService {
     MediaUploadResponse upload(MultipartFile file);
-}
\ No newline at end of file
+
+    /**
+     * 登记已落在本地临时目录、哈希已算好的文件（分片上传合并后调用），去重语义同 upload
+     * @param file 临时文件；写入存储时被移动，命中去重时保留由调用方清理
+     */
+    MediaUploadResponse register(Path file, String originalFilename, String mimeType, String sha256, long size);
+
+    /**
+     * 定位媒体文件用于公开分发；不存在时抛出 MEDIA_NOT_FOUND
+     */
+    MediaContent locate(UUID id);
+
+    /**
+     * 按目标宽度定位衍生图：取不小于 width 的最小档位，没有合适档位时回退原图
+     * @param acceptWebp 客户端是否接受 image/webp
+     */
+    MediaContent locate(UUID id, Integer width, boolean acceptWebp);
+}
@@ -1,66 +1,200 @@
 package com.foxsoftware.foxblog.service.media;
 
+import com.foxsoftware.foxblog.dto.media.MediaContent;
 import com.foxsoftware.foxblog.dto.media.MediaUploadResponse;
 import com.foxsoftware.foxblog.entity.Media;
+import com.foxsoftware.foxblog.entity.MediaVariant;
+import com.foxsoftware.foxblog.exception.BusinessException;
+import com.foxsoftware.foxblog.exception.ErrorCode;
 import com.foxsoftware.foxblog.repository.MediaRepository;
+import com.foxsoftware.foxblog.repository.MediaVariantRepository;
 import com.foxsoftware.foxblog.storage.MediaStorage;
 import com.foxsoftware.foxblog.util.HashUtils;
+import com.foxsoftware.foxblog.util.UuidUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+/**
+ * 媒体上传 + 去重
+ * 并发去重分两层：
+ *  - 节点内：按 sha256 single-flight，同一哈希只有一个上传者写盘入库，其余等待其结果
+ *  - 跨节点：uk_media_hash 唯一约束 + INSERT ... ON DUPLICATE KEY，竞争失败方读取胜者记录并清理自己写的冗余文件
+ * 不同哈希之间互不阻塞。
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MediaServiceImpl implements MediaService {
 
     private final MediaRepository mediaRepository;
     private final MediaStorage mediaStorage;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final MediaVariantService mediaVariantService;
+    private final MediaMetadataService mediaMetadataService;
+
+    // 节点内进行中的上传（sha256 -> 结果）
+    private final ConcurrentHashMap<String, CompletableFuture<Media>> inFlight = new ConcurrentHashMap<>();
 
     @Override
-    @Transactional
     public MediaUploadResponse upload(MultipartFile file) {
         try {
             byte[] bytes = file.getBytes();
             String hash = HashUtils.sha256Hex(bytes);
+            return ingest(hash, file.getContentType(), bytes.length,
+                    () -> mediaStorage.storeContent(hash, file.getOriginalFilename(), bytes));
+        } catch (Exception e) {
+            throw new RuntimeException("媒体上传失败: " + e.getMessage(), e);
+        }
+    }
 
-            Optional<Media> existing = mediaRepository.findFirstBySha256Hash(hash);
-            if (existing.isPresent()) {
-                Media m = existing.get();
-                return MediaUploadResponse.builder()
-                        .id(m.getId().toString())
-                        .mimeType(m.getMimeType())
-                        .sizeBytes(m.getSizeBytes())
-                        .sha256(m.getSha256Hash())
-                        .storagePath(m.getStoragePath())
-                        .reused(true)
-                        .build();
-            }
-
-            String subdir = LocalDate.now().toString();
-            String storedPath = mediaStorage.store(subdir, file.getOriginalFilename(), bytes);
-
-            Media media = Media.builder()
-                    .storagePath(storedPath)
-                    .mimeType(file.getContentType())
-                    .sizeBytes((long) bytes.length)
-                    .sha256Hash(hash)
-                    .build();
-            Media saved = mediaRepository.save(media);
-
-            return MediaUploadResponse.builder()
-                    .id(saved.getId().toString())
-                    .mimeType(saved.getMimeType())
-                    .sizeBytes(saved.getSizeBytes())
-                    .sha256(saved.getSha256Hash())
-                    .storagePath(saved.getStoragePath())
-                    .reused(false)
-                    .build();
+    @Override
+    public MediaUploadResponse register(Path file, String originalFilename, String mimeType, String sha256, long size) {
+        try {
+            return ingest(sha256, mimeType, size,
+                    () -> mediaStorage.storeFile(sha256, originalFilename, file));
         } catch (Exception e) {
             throw new RuntimeException("媒体上传失败: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaContent locate(UUID id) {
+        Media m = mediaRepository.findById(id)
+                .orElseThrow(() -> BusinessException.of(ErrorCode.MEDIA_NOT_FOUND, "媒体不存在: " + id));
+        return toContent(id, m.getStoragePath(), m.getMimeType(), m.getSha256Hash(), true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaContent locate(UUID id, Integer width, boolean acceptWebp) {
+        if (width == null || width <= 0) {
+            return locate(id);
+        }
+        List<MediaVariant> candidates = mediaVariantRepository.findByMediaIdOrderByWidthAsc(id).stream()
+                .filter(v -> v.getWidth() >= width)
+                .filter(v -> acceptWebp || !"webp".equals(v.getFormat()))
+                .toList();
+        if (candidates.isEmpty()) {
+            Media m = mediaRepository.findById(id)
+                    .orElseThrow(() -> BusinessException.of(ErrorCode.MEDIA_NOT_FOUND, "媒体不存在: " + id));
+            // 衍生图还在生成中时回退原图，但不能让客户端长期缓存这个结果
+            return toContent(id, m.getStoragePath(), m.getMimeType(), m.getSha256Hash(), m.isVariantsReady());
+        }
+        int bestWidth = candidates.get(0).getWidth();
+        MediaVariant v = candidates.stream()
+                .filter(c -> c.getWidth() == bestWidth)
+                // 同宽度下优先 webp（体积更小）
+                .min(Comparator.comparing(c -> "webp".equals(c.getFormat()) ? 0 : 1))
+                .orElseThrow();
+        return toContent(id, v.getStoragePath(), v.getMimeType(), v.getSha256Hash(), true);
+    }
+
+    private MediaContent toContent(UUID id, String storagePath, String mimeType, String sha256, boolean immutable) {
+        Path path = mediaStorage.resolve(storagePath);
+        if (!Files.isRegularFile(path)) {
+            throw BusinessException.of(ErrorCode.MEDIA_NOT_FOUND, "媒体文件缺失: " + id);
+        }
+        return MediaContent.builder()
+                .path(path)
+                .mimeType(mimeType)
+                .sha256(sha256)
+                .immutable(immutable)
+                .build();
+    }
+
+    // ========== 去重入库 ==========
+
+    /**
+     * @param writer 实际落盘动作，仅在确认需要写入时调用，返回存储路径
+     */
+    private MediaUploadResponse ingest(String hash, String mimeType, long size, Supplier<String> writer) {
+        Optional<Media> existing = mediaRepository.findFirstBySha256Hash(hash);
+        if (existing.isPresent() && markReferenced(existing.get())) {
+            return toResponse(existing.get(), true);
+        }
+
+        CompletableFuture<Media> mine = new CompletableFuture<>();
+        CompletableFuture<Media> leader = inFlight.putIfAbsent(hash, mine);
+        if (leader != null) {
+            try {
+                return toResponse(leader.join(), true);
+            } catch (CompletionException e) {
+                throw new IllegalStateException("同内容的并发上传失败", e.getCause());
+            }
+        }
+
+        try {
+            Ingested result = persist(hash, mimeType, size, writer);
+            mine.complete(result.media());
+            if (!result.reused()) {
+                mediaVariantService.schedule(result.media().getId(), mimeType);
+                mediaMetadataService.schedule(result.media().getId(), mimeType);
+            }
+            return toResponse(result.media(), result.reused());
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    private Ingested persist(String hash, String mimeType, long size, Supplier<String> writer) {
+        // 获得 single-flight 后再查一次：可能刚被本节点上一个上传者或其他节点写入
+        Optional<Media> existing = mediaRepository.findFirstBySha256Hash(hash);
+        if (existing.isPresent() && markReferenced(existing.get())) {
+            return new Ingested(existing.get(), true);
+        }
+
+        String storedPath = writer.get();
+        UUID id = UUID.randomUUID();
+        mediaRepository.insertIfAbsent(UuidUtils.toBytes(id), storedPath, mimeType, size, hash);
+
+        Media winner = mediaRepository.findFirstBySha256Hash(hash)
+                .orElseThrow(() -> new IllegalStateException("媒体记录写入后不可见: " + hash));
+        boolean lostRace = !winner.getId().equals(id);
+        if (lostRace && !storedPath.equals(winner.getStoragePath())) {
+            // 跨节点竞争失败：对方记录已生效，删除本次写入的冗余文件
+            log.info("[MEDIA] dedup lost race hash={} winner={}", hash, winner.getId());
+            mediaStorage.delete(storedPath);
+        }
+        if (lostRace) markReferenced(winner);
+        return new Ingested(winner, lostRace);
+    }
+
+    /**
+     * 复用已有记录前刷新其宽限期起点，防止 ref_count = 0 的旧记录在客户端绑定帖子前被孤儿清理删除
+     * @return false 表示记录已被清理（按新上传处理）
+     */
+    private boolean markReferenced(Media m) {
+        return mediaRepository.markReferenced(UuidUtils.toBytes(m.getId())) > 0;
+    }
+
+    private MediaUploadResponse toResponse(Media m, boolean reused) {
+        return MediaUploadResponse.builder()
+                .id(m.getId().toString())
+                .mimeType(m.getMimeType())
+                .sizeBytes(m.getSizeBytes())
+                .sha256(m.getSha256Hash())
+                .storagePath(m.getStoragePath())
+                .reused(reused)
+                .build();
+    }
+
+    private record Ingested(Media media, boolean reused) {}
+}
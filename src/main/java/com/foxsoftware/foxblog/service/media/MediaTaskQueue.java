@@ -0,0 +1,99 @@
+package com.foxsoftware.foxblog.service.media;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * 媒体后台任务队列（衍生图 / 元数据共用）
+ *  - 固定大小线程池 + 有界队列，满了直接丢弃，由补偿扫描（resume）兜底
+ *  - 同一媒体排队中或执行中不重复提交
+ */
+@Slf4j
+final class MediaTaskQueue {
+
+    @FunctionalInterface
+    interface Task {
+        void run(UUID mediaId) throws Exception;
+    }
+
+    private final String name;
+    private final Task task;
+    private final Consumer<UUID> onFailure;
+    private final ThreadPoolExecutor executor;
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param onFailure 任务抛异常后的处理（已记录日志），可为 null
+     */
+    MediaTaskQueue(String name, int threads, int queueCapacity, Task task, Consumer<UUID> onFailure) {
+        this.name = name;
+        this.task = task;
+        this.onFailure = onFailure;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "media-" + name + "-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return false 表示队列已满，未提交
+     */
+    boolean submit(UUID mediaId) {
+        if (!queued.add(mediaId)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run(mediaId);
+                } catch (Exception e) {
+                    log.warn("[MEDIA] {} task failed id={} err={}", name, mediaId, e.getMessage());
+                    if (onFailure != null) onFailure.accept(mediaId);
+                } finally {
+                    queued.remove(mediaId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(mediaId);
+            log.debug("[MEDIA] {} queue full, deferred id={}", name, mediaId);
+            return false;
+        }
+    }
+
+    /**
+     * 补偿扫描：按 id 游标分批取待处理的媒体重新排队，直到队列满
+     * @param pendingIds (游标, 分页) -> 大于游标的待处理 id，按 id 升序
+     * @return 本次排队数量
+     */
+    int resume(int batchSize, BiFunction<UUID, Pageable, List<UUID>> pendingIds) {
+        int submitted = 0;
+        UUID cursor = new UUID(0L, 0L);
+        while (executor.getQueue().remainingCapacity() > 0) {
+            List<UUID> ids = pendingIds.apply(cursor, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) break;
+            cursor = ids.get(ids.size() - 1);
+            for (UUID id : ids) {
+                if (!submit(id)) return submitted;
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,176 @@
+package com.foxsoftware.foxblog.service.media;
+
+import com.foxsoftware.foxblog.entity.Media;
+import com.foxsoftware.foxblog.entity.MediaVariant;
+import com.foxsoftware.foxblog.repository.MediaRepository;
+import com.foxsoftware.foxblog.repository.MediaVariantRepository;
+import com.foxsoftware.foxblog.storage.MediaStorage;
+import com.foxsoftware.foxblog.util.HashUtils;
+import com.foxsoftware.foxblog.util.ImageUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+
+/**
+ * 衍生图流水线
+ *  - upload 成功入库后异步排队；固定大小线程池 + 有界队列，满了直接丢弃（由补偿扫描兜底）
+ *  - 每个宽度 × 格式一条 media_variant，已存在的组合跳过，因此可重复执行
+ *  - 全部完成后置 media.variants_ready，重启后由 MediaVariantResumeJob 扫描未完成的图片继续生成
+ *  - 按 EXIF 方向转正后再缩放；不放大：宽度不小于（转正后）原图的档位跳过
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaVariantService {
+
+    private static final Map<String, String> MIME_BY_FORMAT = Map.of(
+            "jpeg", "image/jpeg",
+            "webp", "image/webp",
+            "png", "image/png");
+
+    private final MediaRepository mediaRepository;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final MediaStorage mediaStorage;
+
+    @Value("${app.media.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.media.variants.widths:320,640,1280}")
+    private List<Integer> widths;
+
+    @Value("${app.media.variants.formats:webp,jpeg}")
+    private List<String> formats;
+
+    @Value("${app.media.variants.quality:0.82}")
+    private float quality;
+
+    @Value("${app.media.variants.threads:2}")
+    private int threads;
+
+    @Value("${app.media.variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    // 超过该像素数的原图不处理，防止解码占满堆
+    @Value("${app.media.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    private MediaTaskQueue queue;
+    private List<Integer> sortedWidths;
+    private List<String> writableFormats;
+
+    @PostConstruct
+    void init() {
+        sortedWidths = widths.stream().filter(w -> w > 0).distinct().sorted().toList();
+        writableFormats = formats.stream()
+                .map(f -> f.trim().toLowerCase(Locale.ROOT))
+                .filter(f -> {
+                    boolean ok = ImageUtils.canWrite(f);
+                    if (!ok) log.warn("[MEDIA] variant format {} skipped: no ImageIO writer on classpath", f);
+                    return ok;
+                })
+                .toList();
+        queue = new MediaTaskQueue("variant", threads, queueCapacity, this::generate, null);
+        ImageIO.setUseCache(false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        queue.shutdown();
+    }
+
+    /**
+     * 为新媒体排队生成衍生图；非图片或队列已满时直接返回
+     */
+    public void schedule(UUID mediaId, String mimeType) {
+        if (!enabled || mimeType == null || !mimeType.startsWith("image/")) return;
+        queue.submit(mediaId);
+    }
+
+    /**
+     * 补偿扫描：把未完成的图片重新排队，直到队列满
+     * @return 本次排队数量
+     */
+    public int resumePending(int batchSize) {
+        if (!enabled) return 0;
+        return queue.resume(batchSize, mediaRepository::findPendingVariantIds);
+    }
+
+    // ========== 生成 ==========
+
+    private void generate(UUID mediaId) throws Exception {
+        Media media = mediaRepository.findById(mediaId).orElse(null);
+        if (media == null || media.isVariantsReady()) return;
+
+        Path source = mediaStorage.resolve(media.getStoragePath());
+        Dimension size = ImageUtils.readSize(source);
+        if (size == null || (long) size.width * size.height > maxPixels) {
+            log.info("[MEDIA] variant skipped id={} (unreadable or too large)", mediaId);
+            mediaRepository.markVariantsReady(mediaId);
+            return;
+        }
+
+        // 衍生图重新编码后不带 EXIF，需要把方向转正后再缩放；档位按转正后的宽度比较
+        int orientation = "image/jpeg".equals(media.getMimeType()) ? ImageUtils.readExifOrientation(source) : 1;
+        int orientedWidth = orientation >= 5 ? size.height : size.width;
+
+        Set<String> done = new HashSet<>();
+        for (MediaVariant v : mediaVariantRepository.findByMediaIdOrderByWidthAsc(mediaId)) {
+            done.add(v.getWidth() + "/" + v.getFormat());
+        }
+
+        BufferedImage original = null;
+        for (int width : sortedWidths) {
+            if (width >= orientedWidth) break;
+            List<String> missing = writableFormats.stream()
+                    .filter(f -> !done.contains(width + "/" + f))
+                    .toList();
+            if (missing.isEmpty()) continue;
+
+            if (original == null) {
+                original = ImageIO.read(source.toFile());
+                if (original == null) break;
+                original = ImageUtils.applyOrientation(original, orientation);
+            }
+            int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+            BufferedImage scaled = ImageUtils.resize(original, width, height);
+            for (String format : missing) {
+                byte[] bytes = ImageUtils.encode(scaled, format, quality);
+                saveVariant(mediaId, width, height, format, bytes);
+            }
+        }
+        mediaRepository.markVariantsReady(mediaId);
+        log.info("[MEDIA] variants ready id={}", mediaId);
+    }
+
+    private void saveVariant(UUID mediaId, int width, int height, String format, byte[] bytes) {
+        String hash = HashUtils.sha256Hex(bytes);
+        String ext = "jpeg".equals(format) ? "jpg" : format;
+        String path = mediaStorage.storeContent(hash, mediaId + "_w" + width + "." + ext, bytes);
+        try {
+            mediaVariantRepository.save(MediaVariant.builder()
+                    .mediaId(mediaId)
+                    .width(width)
+                    .height(height)
+                    .format(format)
+                    .storagePath(path)
+                    .mimeType(MIME_BY_FORMAT.getOrDefault(format, "application/octet-stream"))
+                    .sizeBytes((long) bytes.length)
+                    .sha256Hash(hash)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // 其他节点已生成同一档位
+            log.debug("[MEDIA] variant exists id={} w={} f={}", mediaId, width, format);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.foxsoftware.foxblog.service.post;
+
+import lombok.Value;
+
+/**
+ * 帖子（或影响所有帖子展示的标签）发生变化，事务提交后由 PublicPostCache 失效对应缓存
+ * postId 为 null 表示影响全部帖子（如标签改名 / 删除）
+ */
+@Value
+public class PostChangedEvent {
+    Long postId;
+
+    public static PostChangedEvent of(Long postId) {
+        return new PostChangedEvent(postId);
+    }
+
+    public static PostChangedEvent all() {
+        return new PostChangedEvent(null);
+    }
+}
@@ -9,6 +9,7 @@ import com.foxsoftware.foxblog.repository.*;
 import com.foxsoftware.foxblog.util.MarkdownRenderer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +26,7 @@ public class PostServiceImpl implements PostService {
     private final PostMediaRepository postMediaRepository;
     private final PostMapper postMapper;
     private final MarkdownRenderer markdownRenderer;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -50,6 +52,7 @@ public class PostServiceImpl implements PostService {
             attachMedia(saved, req.getMedia());
         }
 
+        eventPublisher.publishEvent(PostChangedEvent.of(saved.getId()));
         return postMapper.toDetail(saved);
     }
 
@@ -73,17 +76,29 @@ public class PostServiceImpl implements PostService {
             post.setTags(resolveTags(req.getTags()));
         }
         if (req.getMedia() != null) {
+            List<UUID> previous = mediaIds(post);
             postMediaRepository.deleteByPost_Id(post.getId());
             post.getMediaList().clear();
+            if (!previous.isEmpty()) {
+                mediaRepository.adjustRefCount(previous, -1);
+            }
             attachMedia(post, req.getMedia());
         }
+        eventPublisher.publishEvent(PostChangedEvent.of(post.getId()));
         return postMapper.toDetail(post);
     }
 
     @Override
     @Transactional
     public void delete(Long id, String operator) {
-        postRepository.findById(id).ifPresent(postRepository::delete);
+        postRepository.findById(id).ifPresent(post -> {
+            List<UUID> mediaIds = mediaIds(post);
+            postRepository.delete(post);
+            if (!mediaIds.isEmpty()) {
+                mediaRepository.adjustRefCount(mediaIds, -1);
+            }
+            eventPublisher.publishEvent(PostChangedEvent.of(id));
+        });
     }
 
     @Override
@@ -147,6 +162,7 @@ public class PostServiceImpl implements PostService {
     }
 
     private void attachMedia(Post post, List<PostCreateRequest.MediaBinding> bindings) {
+        List<UUID> attached = new ArrayList<>(bindings.size());
         for (PostCreateRequest.MediaBinding b : bindings) {
             var mediaUUID = UUID.fromString(b.getMediaId());
             Media media = mediaRepository.findById(mediaUUID)
@@ -159,7 +175,17 @@ public class PostServiceImpl implements PostService {
                     .build();
             post.getMediaList().add(pm);
             postMediaRepository.save(pm);
+            attached.add(media.getId());
         }
+        if (!attached.isEmpty()) {
+            mediaRepository.adjustRefCount(attached, 1);
+        }
+    }
+
+    private List<UUID> mediaIds(Post post) {
+        return post.getMediaList().stream()
+                .map(pm -> pm.getMedia().getId())
+                .toList();
     }
 
     private Post.Visibility parseVisibility(String v) {
@@ -0,0 +1,232 @@
+package com.foxsoftware.foxblog.service.post;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foxsoftware.foxblog.dto.post.PostListItemResponse;
+import com.foxsoftware.foxblog.entity.Post;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 公开帖子接口的响应缓存：缓存序列化后的最终字节，命中时不再查询、映射、序列化
+ *  - 每条保存 UTF-8 JSON 与预压缩的 gzip 两份（gzip 不小于原文时不保存）
+ *  - 失效按版本：列表 / 置顶共用一个 listing 版本，详情按帖子各自版本，标签变化推进全局 generation
+ *    加载前读取版本、加载后按该版本写入，加载期间发生的修改会使写入的条目立即过期
+ *  - 版本在事务提交后推进（PostChangedEvent）；ttl 兜底覆盖媒体元数据等非帖子写入
+ *  - 关键字搜索不缓存（键空间不可控）；条目数超过 max-entries 时先淘汰失效条目，再淘汰最旧的
+ */
+@Slf4j
+@Component
+public class PublicPostCache {
+
+    private static final String POST_PREFIX = "post:";
+    private static final String LIST_PREFIX = "list:";
+    private static final String PINNED_KEY = "pinned";
+    private static final AtomicLong NEVER_CHANGED = new AtomicLong();
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final int gzipMinBytes;
+
+    private final Map<String, CachedJson> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong listingVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> postVersions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PublicPostCache(PostService postService,
+                           ObjectMapper objectMapper,
+                           @Value("${app.public-cache.enabled:true}") boolean enabled,
+                           @Value("${app.public-cache.max-entries:2000}") int maxEntries,
+                           @Value("${app.public-cache.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${app.public-cache.gzip-min-bytes:512}") int gzipMinBytes,
+                           MeterRegistry meterRegistry) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.gzipMinBytes = gzipMinBytes;
+        FunctionCounter.builder("public.cache.requests", hits, LongAdder::sum)
+                .description("公开帖子响应缓存查询")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("public.cache.requests", misses, LongAdder::sum)
+                .description("公开帖子响应缓存查询")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("public.cache.entries", entries, Map::size)
+                .description("公开帖子响应缓存条目数")
+                .register(meterRegistry);
+    }
+
+    // ========== 查询 ==========
+
+    public CachedJson list(int page, int size, String tag, String keyword) {
+        boolean hasTag = tag != null && !tag.isBlank();
+        if (!hasTag && keyword != null && !keyword.isBlank()) {
+            // listPublic 中 tag 优先于 keyword，只有纯关键字搜索绕过缓存
+            return serialize(postService.listPublic(PageRequest.of(page, size), null, keyword), false, 0, 0);
+        }
+        String t = hasTag ? tag : null;
+        return lookup(LIST_PREFIX + page + ":" + size + ":" + (t == null ? "" : t), listingVersion,
+                () -> postService.listPublic(PageRequest.of(page, size), t, null));
+    }
+
+    public CachedJson pinned() {
+        return lookup(PINNED_KEY, listingVersion, () -> postService.listPinned().stream()
+                .filter(item -> Post.Visibility.PUBLIC.name().equals(item.getVisibility()))
+                .toList());
+    }
+
+    public CachedJson detail(Long id) {
+        return lookup(POST_PREFIX + id, postVersion(id), () -> postService.findDetail(id, false));
+    }
+
+    /**
+     * 预填充首页列表、置顶与首页各帖子详情（启动预热调用，需在事务 / 会话内执行）
+     */
+    public void prepopulate(int pageSize) {
+        if (!enabled) return;
+        long gen = generation.get();
+        long listing = listingVersion.get();
+        Page<PostListItemResponse> first = postService.listPublic(PageRequest.of(0, pageSize), null, null);
+        store(LIST_PREFIX + 0 + ":" + pageSize + ":", gen, listing, first);
+        pinned();
+        for (PostListItemResponse item : first.getContent()) {
+            detail(item.getId());
+        }
+        log.info("[CACHE] public post cache prepopulated entries={}", entries.size());
+    }
+
+    // ========== 失效 ==========
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getPostId() == null) {
+            generation.incrementAndGet();
+            listingVersion.incrementAndGet();
+            entries.clear();
+            return;
+        }
+        postVersions.computeIfAbsent(event.getPostId(), k -> new AtomicLong()).incrementAndGet();
+        listingVersion.incrementAndGet();
+        entries.remove(POST_PREFIX + event.getPostId());
+        entries.keySet().removeIf(k -> !k.startsWith(POST_PREFIX));
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private AtomicLong postVersion(Long id) {
+        AtomicLong v = postVersions.get(id);
+        // 从未修改过的帖子版本为 0；首次修改时才建立计数器
+        return v != null ? v : NEVER_CHANGED;
+    }
+
+    private CachedJson lookup(String key, AtomicLong version, Supplier<Object> loader) {
+        if (!enabled) return serialize(loader.get(), false, 0, 0);
+        long gen = generation.get();
+        long ver = version.get();
+        CachedJson cached = entries.get(key);
+        if (cached != null && cached.generation == gen && cached.version == ver
+                && System.nanoTime() - cached.builtAt < ttlNanos) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return store(key, gen, ver, loader.get());
+    }
+
+    private CachedJson store(String key, long gen, long ver, Object value) {
+        CachedJson built = serialize(value, true, gen, ver);
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, built);
+        return built;
+    }
+
+    private void evict() {
+        long gen = generation.get();
+        long now = System.nanoTime();
+        entries.values().removeIf(e -> e.generation != gen || now - e.builtAt >= ttlNanos);
+        if (entries.size() < maxEntries) return;
+        entries.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().builtAt, b.getValue().builtAt))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    private CachedJson serialize(Object value, boolean compress, long gen, long ver) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化公开响应失败", e);
+        }
+        byte[] gzip = compress && json.length >= gzipMinBytes ? gzip(json) : null;
+        return new CachedJson(json, gzip != null && gzip.length < json.length ? gzip : null, gen, ver);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        // 只在写入缓存时压缩一次，使用最高压缩级别
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(data);
+        } catch (IOException e) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 一份已序列化的响应：json 为 UTF-8 原文，gzip 为预压缩副本（可能为 null）
+     */
+    public static final class CachedJson {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final long generation;
+        private final long version;
+        private final long builtAt = System.nanoTime();
+
+        private CachedJson(byte[] json, byte[] gzip, long generation, long version) {
+            this.json = json;
+            this.gzip = gzip;
+            this.generation = generation;
+            this.version = version;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzip() {
+            return gzip;
+        }
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+    }
+}
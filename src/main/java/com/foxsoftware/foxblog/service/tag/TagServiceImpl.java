@@ -5,7 +5,9 @@ import com.foxsoftware.foxblog.entity.Tag;
 import com.foxsoftware.foxblog.exception.BusinessException;
 import com.foxsoftware.foxblog.exception.ErrorCode;
 import com.foxsoftware.foxblog.repository.TagRepository;
+import com.foxsoftware.foxblog.service.post.PostChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ import java.util.List;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<TagResponse> listAll() {
@@ -49,6 +52,10 @@ public class TagServiceImpl implements TagService {
                 tagRepository.findByName(valid).isPresent()) {
             throw BusinessException.of(ErrorCode.TAG_NAME_EXISTS, "标签已存在: " + valid);
         }
+        if (!tag.getName().equals(valid)) {
+            // 标签名出现在帖子列表与详情中
+            eventPublisher.publishEvent(PostChangedEvent.all());
+        }
         tag.setName(valid);
         return toResponse(tag);
     }
@@ -61,6 +68,7 @@ public class TagServiceImpl implements TagService {
         // 由于 ManyToMany，删除前可以先清空关联（由 JPA 级联处理也可）
         tag.getPosts().forEach(p -> p.getTags().remove(tag));
         tagRepository.delete(tag);
+        eventPublisher.publishEvent(PostChangedEvent.all());
     }
 
     @Override
@@ -1,25 +1,36 @@
 package com.foxsoftware.foxblog.storage;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * 本地目录存储；由 MediaStorageConfig 装配，开启分层时同时用作 SSD 缓存层与慢速层
+ */
 @Slf4j
-@Component
 public class LocalFileSystemStorage implements MediaStorage {
 
-    @Value("${app.media.root:media}")
-    private String rootDir;
+    private final String rootDir;
+    private final MediaLayout layout;
+
+    public LocalFileSystemStorage(String rootDir, MediaLayout layout) {
+        this.rootDir = rootDir;
+        this.layout = layout;
+    }
 
     @Override
     public String store(String subdir, String originalFilename, byte[] data) {
         try {
-            String safeName = UUID.randomUUID() + "_" +
-                    (originalFilename == null ? "file" : originalFilename.replaceAll("\\s+", "_"));
+            String safeName = safeName(originalFilename);
             Path base = Paths.get(rootDir).toAbsolutePath();
             Files.createDirectories(base.resolve(subdir));
             Path target = base.resolve(subdir).resolve(safeName);
@@ -30,4 +41,206 @@ public class LocalFileSystemStorage implements MediaStorage {
             throw new RuntimeException("存储媒体失败", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public String storeContent(String sha256, String originalFilename, byte[] data) {
+        if (layout != MediaLayout.CAS) {
+            return store(LocalDate.now().toString(), originalFilename, data);
+        }
+        String rel = MediaLayout.casPath(sha256);
+        Path target = resolve(rel);
+        if (touch(target)) {
+            log.debug("[MEDIA] blob exists {}", rel);
+            return rel;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // 先写临时文件再原子改名，避免并发写入者看到半截文件
+            Path tmp = Files.createTempFile(target.getParent(), ".tmp-", null);
+            try {
+                Files.write(tmp, data);
+                moveIntoPlace(tmp, target);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            log.info("[MEDIA] stored {}", target);
+            return rel;
+        } catch (IOException e) {
+            throw new RuntimeException("存储媒体失败", e);
+        }
+    }
+
+    @Override
+    public String storeFile(String sha256, String originalFilename, Path source) {
+        try {
+            String rel;
+            if (layout == MediaLayout.CAS) {
+                rel = MediaLayout.casPath(sha256);
+            } else {
+                rel = LocalDate.now() + "/" + safeName(originalFilename);
+            }
+            Path target = resolve(rel);
+            if (touch(target)) {
+                Files.deleteIfExists(source);
+                return rel;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // 临时目录与存储不在同一文件系统：先复制到同目录临时文件再改名
+                Path tmp = Files.createTempFile(target.getParent(), ".tmp-", null);
+                try {
+                    Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+                    moveIntoPlace(tmp, target);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+                Files.deleteIfExists(source);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(source);
+            }
+            log.info("[MEDIA] stored {}", target);
+            return rel;
+        } catch (IOException e) {
+            throw new RuntimeException("存储媒体失败", e);
+        }
+    }
+
+    @Override
+    public String linkToContentAddress(String storagePath, String sha256) {
+        String rel = MediaLayout.casPath(sha256);
+        if (rel.equals(storagePath)) return rel;
+        Path source = resolve(storagePath);
+        Path target = resolve(rel);
+        if (Files.exists(target)) return rel;
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+            try {
+                try {
+                    Files.createLink(tmp, source);
+                } catch (UnsupportedOperationException | IOException e) {
+                    Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                moveIntoPlace(tmp, target);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return rel;
+        } catch (IOException e) {
+            throw new RuntimeException("迁移媒体失败: " + storagePath, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String storagePath) {
+        try {
+            return Files.deleteIfExists(resolve(storagePath));
+        } catch (IOException e) {
+            throw new RuntimeException("删除媒体失败: " + storagePath, e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfOlderThan(String storagePath, Instant cutoff) {
+        Path target = resolve(storagePath);
+        try {
+            if (!Files.getLastModifiedTime(target).toInstant().isBefore(cutoff)) return false;
+            return Files.deleteIfExists(target);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("删除媒体失败: " + storagePath, e);
+        }
+    }
+
+    @Override
+    public List<String> listPartitions() {
+        Path base = Paths.get(rootDir).toAbsolutePath().normalize();
+        List<String> out = new ArrayList<>();
+        if (!Files.isDirectory(base)) return out;
+        try (Stream<Path> top = Files.list(base)) {
+            for (Path dir : top.filter(Files::isDirectory).sorted().toList()) {
+                String name = dir.getFileName().toString();
+                if (name.startsWith(".")) continue;
+                if (MediaLayout.CAS_PREFIX.equals(name + "/")) {
+                    try (Stream<Path> shards = Files.list(dir)) {
+                        shards.filter(Files::isDirectory)
+                                .sorted()
+                                .forEach(p -> out.add(MediaLayout.CAS_PREFIX + p.getFileName()));
+                    }
+                } else {
+                    out.add(name);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("列出存储分区失败", e);
+        }
+        return out;
+    }
+
+    @Override
+    public List<StoredObject> listObjects(String partition) {
+        Path base = Paths.get(rootDir).toAbsolutePath().normalize();
+        Path dir = resolve(partition);
+        List<StoredObject> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (p.getFileName().toString().startsWith(".tmp-")) continue;
+                BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                if (!attrs.isRegularFile()) continue;
+                String rel = base.relativize(p).toString().replace('\\', '/');
+                out.add(new StoredObject(rel, attrs.lastModifiedTime().toInstant(), attrs.size()));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("列出存储文件失败: " + partition, e);
+        }
+        return out;
+    }
+
+    @Override
+    public MediaLayout layout() {
+        return layout;
+    }
+
+    @Override
+    public Path resolve(String storagePath) {
+        Path base = Paths.get(rootDir).toAbsolutePath().normalize();
+        Path target = base.resolve(storagePath).normalize();
+        if (!target.startsWith(base)) {
+            throw new IllegalArgumentException("非法存储路径: " + storagePath);
+        }
+        return target;
+    }
+
+    private String safeName(String originalFilename) {
+        return UUID.randomUUID() + "_" +
+                (originalFilename == null ? "file" : originalFilename.replaceAll("\\s+", "_"));
+    }
+
+    /**
+     * 已有文件被复用：刷新修改时间，孤儿清理据此跳过（见 deleteIfOlderThan）
+     * @return false 表示文件不存在（或刚被清理），需要重新写入
+     */
+    private static boolean touch(Path target) {
+        try {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("存储媒体失败", e);
+        }
+    }
+
+    private void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // 并发写入同一内容，已有文件即为结果
+            log.debug("[MEDIA] concurrent blob write {}", target);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.foxsoftware.foxblog.storage;
+
+/**
+ * 媒体文件落盘布局
+ *  - DATED: <yyyy-MM-dd>/<uuid>_<原始文件名>（历史布局）
+ *  - CAS:   cas/<hash[0..2]>/<hash[2..4]>/<sha256>，相同内容只存一份，存在性检查为一次 stat
+ */
+public enum MediaLayout {
+    DATED,
+    CAS;
+
+    public static final String CAS_PREFIX = "cas/";
+
+    /**
+     * sha256 对应的 CAS 相对路径（两级 hex 分片）
+     */
+    public static String casPath(String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            throw new IllegalArgumentException("非法 sha256: " + sha256);
+        }
+        return CAS_PREFIX + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+}
@@ -1,5 +1,9 @@
 package com.foxsoftware.foxblog.storage;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
 public interface MediaStorage {
     /**
      * 存储媒体文件
@@ -9,4 +13,60 @@ public interface MediaStorage {
      * @return 相对或逻辑存储路径
      */
     String store(String subdir, String originalFilename, byte[] data);
-}
\ No newline at end of file
+
+    /**
+     * 按当前布局存储媒体文件（DATED 走 store，CAS 按 sha256 寻址且已存在时不再写入）
+     * @param sha256 内容哈希（小写 hex）
+     * @param originalFilename 原始文件名
+     * @param data 文件字节
+     * @return 相对或逻辑存储路径
+     */
+    String storeContent(String sha256, String originalFilename, byte[] data);
+
+    /**
+     * 按当前布局把本地临时文件移入存储（大文件上传用，不经过内存）；CAS 已存在时删除 source
+     * @param source 临时文件，调用后不应再使用
+     * @return 相对或逻辑存储路径
+     */
+    String storeFile(String sha256, String originalFilename, Path source);
+
+    /**
+     * 将已有文件挂到 CAS 路径下（优先硬链接，跨设备时复制），原文件保留，由调用方确认后删除
+     * @return CAS 存储路径
+     */
+    String linkToContentAddress(String storagePath, String sha256);
+
+    /**
+     * 删除文件；不存在时返回 false
+     */
+    boolean delete(String storagePath);
+
+    /**
+     * 仅当文件最后修改时间早于 cutoff 时删除（孤儿清理用）；storeContent / storeFile 命中已有文件时会刷新修改时间，
+     * 清理与并发的同内容上传竞争时，被复用的文件不会被删除
+     * @return 是否删除
+     */
+    boolean deleteIfOlderThan(String storagePath, Instant cutoff);
+
+    /**
+     * 顶层分区（DATED 的日期目录、CAS 的 cas/xx 分片），供孤儿文件巡检按分区增量进行
+     */
+    List<String> listPartitions();
+
+    /**
+     * 分区下的全部文件（不含写入中的临时文件）
+     */
+    List<StoredObject> listObjects(String partition);
+
+    /**
+     * 当前布局
+     */
+    MediaLayout layout();
+
+    /**
+     * 将逻辑存储路径解析为本地文件路径（供零拷贝读取）
+     * @param storagePath store 返回的路径
+     * @return 本地绝对路径；路径越界时抛出 IllegalArgumentException
+     */
+    Path resolve(String storagePath);
+}
@@ -0,0 +1,15 @@
+package com.foxsoftware.foxblog.storage;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * 存储中的一个文件（巡检用）
+ */
+@Value
+public class StoredObject {
+    String storagePath;
+    Instant lastModified;
+    long sizeBytes;
+}
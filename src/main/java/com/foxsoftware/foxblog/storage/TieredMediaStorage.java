@@ -0,0 +1,370 @@
+package com.foxsoftware.foxblog.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分层媒体存储：本地 SSD 缓存层 + 慢速层（网络盘目录）
+ *  - 读：resolve 命中缓存直接返回缓存文件；未命中时从慢速层复制进缓存（同一路径并发只复制一次）再返回
+ *  - 写：先落缓存层并立即返回，后台线程异步写回慢速层；写回前的文件不会被淘汰
+ *  - 缓存按字节数上限做 LRU 淘汰；超过 max-object-bytes 的大文件不进缓存，直接读慢速层
+ *  - resolve 返回缓存路径时给条目一个读租约（read-lease），租约内不淘汰：
+ *    调用方打开文件（或交给 Tomcat sendfile）之前文件不会被删除，打开之后删除不影响已打开的句柄
+ *  - 启动时扫描缓存目录重建索引，慢速层缺失的文件重新排队写回（进程中断后的补偿）
+ * 两层使用相同的相对路径；慢速层须能解析为本地可读路径（挂载的网络盘）。
+ */
+@Slf4j
+public class TieredMediaStorage implements MediaStorage {
+
+    private final MediaStorage cache;
+    private final MediaStorage backing;
+    private final long maxBytes;
+    private final long maxObjectBytes;
+    private final int threads;
+    private final int queueCapacity;
+    private final long readLeaseNanos;
+
+    // accessOrder = true：迭代顺序即 LRU 顺序
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(1024, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long cachedBytes;
+
+    private final Map<String, CompletableFuture<Path>> fetching = new ConcurrentHashMap<>();
+    private final Set<String> flushing = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor writeBehind;
+
+    public TieredMediaStorage(MediaStorage cache, MediaStorage backing,
+                              long maxBytes, int threads, int queueCapacity, long readLeaseSeconds) {
+        this.cache = cache;
+        this.backing = backing;
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = Math.max(1, maxBytes / 8);
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.readLeaseNanos = TimeUnit.SECONDS.toNanos(readLeaseSeconds);
+    }
+
+    public void init() {
+        AtomicInteger seq = new AtomicInteger();
+        // 队列满时由调用线程同步写回，形成背压
+        writeBehind = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "media-write-behind-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        rebuildIndex();
+    }
+
+    public void close() {
+        writeBehind.shutdown();
+        try {
+            if (!writeBehind.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("[MEDIA] write-behind not drained on shutdown, pending files will be re-queued on next start");
+                writeBehind.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== 写入 ==========
+
+    @Override
+    public String store(String subdir, String originalFilename, byte[] data) {
+        return written(cache.store(subdir, originalFilename, data));
+    }
+
+    @Override
+    public String storeContent(String sha256, String originalFilename, byte[] data) {
+        return written(cache.storeContent(sha256, originalFilename, data));
+    }
+
+    @Override
+    public String storeFile(String sha256, String originalFilename, Path source) {
+        return written(cache.storeFile(sha256, originalFilename, source));
+    }
+
+    @Override
+    public String linkToContentAddress(String storagePath, String sha256) {
+        // 布局迁移以慢速层为准：源文件尚未写回时先同步写回
+        flushNow(storagePath);
+        return backing.linkToContentAddress(storagePath, sha256);
+    }
+
+    @Override
+    public boolean delete(String storagePath) {
+        Entry removed;
+        lock.lock();
+        try {
+            removed = index.remove(storagePath);
+            if (removed != null) cachedBytes -= removed.size;
+        } finally {
+            lock.unlock();
+        }
+        boolean inCache = cache.delete(storagePath);
+        return backing.delete(storagePath) || inCache || removed != null;
+    }
+
+    @Override
+    public boolean deleteIfOlderThan(String storagePath, Instant cutoff) {
+        // 任一层的副本较新（刚被复用或刚写入缓存层）都保留
+        if (modifiedSince(cache.resolve(storagePath), cutoff) || modifiedSince(backing.resolve(storagePath), cutoff)) {
+            return false;
+        }
+        return delete(storagePath);
+    }
+
+    private static boolean modifiedSince(Path path, Instant cutoff) {
+        try {
+            return !Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("读取媒体文件属性失败: " + path, e);
+        }
+    }
+
+    // ========== 读取 ==========
+
+    @Override
+    public Path resolve(String storagePath) {
+        Path cached = cache.resolve(storagePath);
+        if (lease(storagePath)) {
+            if (Files.exists(cached)) return cached;
+            // 缓存文件被外部删除：丢弃索引项后重新读穿
+            forget(storagePath);
+        }
+        Path source = backing.resolve(storagePath);
+        long size;
+        try {
+            size = Files.size(source);
+        } catch (IOException e) {
+            // 慢速层也没有：交给调用方按不存在处理
+            return Files.exists(cached) ? cached : source;
+        }
+        if (size > maxObjectBytes) return source;
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = fetching.putIfAbsent(storagePath, mine);
+        if (existing != null) return existing.join();
+        try {
+            copyAtomically(source, cached);
+            admit(storagePath, size, false, true);
+            mine.complete(cached);
+        } catch (IOException e) {
+            log.warn("[MEDIA] cache fill failed {}: {}", storagePath, e.getMessage());
+            mine.complete(source);
+        } finally {
+            fetching.remove(storagePath, mine);
+        }
+        return mine.join();
+    }
+
+    // ========== 委托慢速层 ==========
+
+    @Override
+    public List<String> listPartitions() {
+        return backing.listPartitions();
+    }
+
+    @Override
+    public List<StoredObject> listObjects(String partition) {
+        return backing.listObjects(partition);
+    }
+
+    @Override
+    public MediaLayout layout() {
+        return backing.layout();
+    }
+
+    // ========== 写回 ==========
+
+    private String written(String storagePath) {
+        try {
+            admit(storagePath, Files.size(cache.resolve(storagePath)), true, false);
+        } catch (IOException e) {
+            throw new RuntimeException("存储媒体失败", e);
+        }
+        scheduleFlush(storagePath);
+        return storagePath;
+    }
+
+    private void scheduleFlush(String storagePath) {
+        if (!flushing.add(storagePath)) return;
+        try {
+            writeBehind.execute(() -> {
+                try {
+                    flushNow(storagePath);
+                } finally {
+                    flushing.remove(storagePath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 已关闭：留给下次启动补偿
+            flushing.remove(storagePath);
+        }
+    }
+
+    private void flushNow(String storagePath) {
+        Path source = cache.resolve(storagePath);
+        Path target = backing.resolve(storagePath);
+        try {
+            if (Files.exists(source) && !Files.exists(target)) {
+                copyAtomically(source, target);
+                log.debug("[MEDIA] written back {}", storagePath);
+            }
+            markClean(storagePath);
+        } catch (IOException e) {
+            // 保持 dirty，不会被淘汰；下次启动或再次写入时重试
+            log.error("[MEDIA] write-behind failed {}: {}", storagePath, e.getMessage());
+        }
+    }
+
+    /**
+     * 先复制到目标目录下的临时文件再原子改名，读者不会看到半截文件
+     */
+    private void copyAtomically(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(".tmp-" + UUID.randomUUID());
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                log.debug("[MEDIA] concurrent copy {}", target);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // ========== LRU 索引 ==========
+
+    /**
+     * 命中时更新 LRU 顺序并续租
+     */
+    private boolean lease(String storagePath) {
+        lock.lock();
+        try {
+            Entry e = index.get(storagePath);
+            if (e == null) return false;
+            e.leasedUntil = System.nanoTime() + readLeaseNanos;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(String storagePath) {
+        lock.lock();
+        try {
+            Entry e = index.remove(storagePath);
+            if (e != null) cachedBytes -= e.size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markClean(String storagePath) {
+        lock.lock();
+        try {
+            Entry e = index.get(storagePath);
+            if (e != null) e.dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+    }
+
+    private void admit(String storagePath, long size, boolean dirty, boolean leased) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(size, dirty);
+            if (leased) entry.leasedUntil = System.nanoTime() + readLeaseNanos;
+            Entry prev = index.put(storagePath, entry);
+            if (prev != null) {
+                cachedBytes -= prev.size;
+                entry.dirty |= prev.dirty;
+                entry.leasedUntil = Math.max(entry.leasedUntil, prev.leasedUntil);
+            }
+            cachedBytes += size;
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * 从最久未访问的一端淘汰干净且不在读租约内的文件直到回到上限（全部在租约内时暂时超出上限）；删除文件在锁外进行
+     */
+    private void evictIfNeeded() {
+        List<String> victims = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+            while (cachedBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                if (e.getValue().dirty || now - e.getValue().leasedUntil < 0) continue;
+                it.remove();
+                cachedBytes -= e.getValue().size;
+                victims.add(e.getKey());
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (String v : victims) {
+            try {
+                cache.delete(v);
+            } catch (RuntimeException e) {
+                log.warn("[MEDIA] cache evict failed {}: {}", v, e.getMessage());
+            }
+        }
+        if (!victims.isEmpty()) {
+            log.debug("[MEDIA] evicted {} cached files", victims.size());
+        }
+    }
+
+    /**
+     * 启动时按修改时间（近似访问时间）重建 LRU 索引；慢速层缺失的文件视为未写回
+     */
+    private void rebuildIndex() {
+        List<String> pending = new ArrayList<>();
+        List<StoredObject> found = new ArrayList<>();
+        for (String partition : cache.listPartitions()) {
+            found.addAll(cache.listObjects(partition));
+        }
+        found.sort(Comparator.comparing(StoredObject::getLastModified));
+        for (StoredObject o : found) {
+            boolean dirty = !Files.exists(backing.resolve(o.getStoragePath()));
+            admit(o.getStoragePath(), o.getSizeBytes(), dirty, false);
+            if (dirty) pending.add(o.getStoragePath());
+        }
+        pending.forEach(this::scheduleFlush);
+        log.info("[MEDIA] tiered storage ready: {} cached files, {} bytes, {} pending write-back",
+                found.size(), cachedBytes, pending.size());
+    }
+
+    private static final class Entry {
+        private final long size;
+        private boolean dirty;
+        // System.nanoTime()；未租出时为创建时刻（已过期）
+        private long leasedUntil;
+
+        private Entry(long size, boolean dirty) {
+            this.size = size;
+            this.dirty = dirty;
+            this.leasedUntil = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.foxsoftware.foxblog.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * BlurHash 编码（https://blurha.sh 算法），用于图片加载前的占位色块
+ * 输入应为已缩小的图片（几十像素即可），编码开销与像素数 × 分量数成正比。
+ */
+public final class BlurHash {
+
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    // sRGB 8 位 -> 线性光照查表
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double v = i / 255.0;
+            SRGB_TO_LINEAR[i] = (float) (v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4));
+        }
+    }
+
+    private BlurHash() {}
+
+    /**
+     * @param componentsX 横向分量数 1~9
+     * @param componentsY 纵向分量数 1~9
+     */
+    public static String encode(BufferedImage img, int componentsX, int componentsY) {
+        if (componentsX < 1 || componentsX > 9 || componentsY < 1 || componentsY > 9) {
+            throw new IllegalArgumentException("BlurHash 分量数需在 1~9 之间");
+        }
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+        float[] linear = new float[w * h * 3];
+        for (int i = 0; i < pixels.length; i++) {
+            int p = pixels[i];
+            linear[i * 3] = SRGB_TO_LINEAR[(p >> 16) & 0xFF];
+            linear[i * 3 + 1] = SRGB_TO_LINEAR[(p >> 8) & 0xFF];
+            linear[i * 3 + 2] = SRGB_TO_LINEAR[p & 0xFF];
+        }
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            double[] cosY = cosines(j, h);
+            for (int i = 0; i < componentsX; i++) {
+                double[] cosX = cosines(i, w);
+                double norm = (i == 0 && j == 0) ? 1.0 : 2.0;
+                double r = 0, g = 0, b = 0;
+                for (int y = 0; y < h; y++) {
+                    for (int x = 0; x < w; x++) {
+                        double basis = cosX[x] * cosY[y];
+                        int idx = (y * w + x) * 3;
+                        r += basis * linear[idx];
+                        g += basis * linear[idx + 1];
+                        b += basis * linear[idx + 2];
+                    }
+                }
+                double scale = norm / (w * h);
+                factors[j * componentsX + i] = new double[]{r * scale, g * scale, b * scale};
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(4 + 2 * factors.length);
+        append83(sb, (componentsX - 1) + (componentsY - 1) * 9, 1);
+
+        double maxValue = 1;
+        if (factors.length > 1) {
+            double actualMax = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double v : factors[k]) actualMax = Math.max(actualMax, Math.abs(v));
+            }
+            int quantised = (int) Math.max(0, Math.min(82, Math.floor(actualMax * 166 - 0.5)));
+            maxValue = (quantised + 1) / 166.0;
+            append83(sb, quantised, 1);
+        } else {
+            append83(sb, 0, 1);
+        }
+
+        double[] dc = factors[0];
+        append83(sb, (linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4);
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            int value = quantiseAc(ac[0], maxValue) * 19 * 19
+                    + quantiseAc(ac[1], maxValue) * 19
+                    + quantiseAc(ac[2], maxValue);
+            append83(sb, value, 2);
+        }
+        return sb.toString();
+    }
+
+    // ========== 内部逻辑 ==========
+
+    private static double[] cosines(int component, int size) {
+        double[] out = new double[size];
+        for (int k = 0; k < size; k++) {
+            out[k] = Math.cos(Math.PI * component * k / size);
+        }
+        return out;
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static int quantiseAc(double value, double maxValue) {
+        double v = value / maxValue;
+        double signPow = Math.copySign(Math.sqrt(Math.abs(v)), v);
+        return (int) Math.max(0, Math.min(18, Math.floor(signPow * 9 + 9.5)));
+    }
+
+    private static void append83(StringBuilder sb, int value, int length) {
+        int divisor = 1;
+        for (int i = 1; i < length; i++) divisor *= 83;
+        for (int i = 0; i < length; i++) {
+            sb.append(BASE83.charAt((value / divisor) % 83));
+            divisor /= 83;
+        }
+    }
+}
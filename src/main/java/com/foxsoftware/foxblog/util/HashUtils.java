@@ -1,5 +1,9 @@
 package com.foxsoftware.foxblog.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 
 public final class HashUtils {
@@ -8,12 +12,32 @@ public final class HashUtils {
     public static String sha256Hex(byte[] data) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] out = md.digest(data);
-            StringBuilder sb = new StringBuilder(out.length * 2);
-            for (byte b : out) sb.append(String.format("%02x", b));
-            return sb.toString();
+            return toHex(md.digest(data));
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * 流式计算文件 sha256，不整体读入内存
+     */
+    public static String sha256Hex(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                md.update(buf, 0, n);
+            }
+            return toHex(md.digest());
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.foxsoftware.foxblog.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 纯 Java 图片处理（javax.imageio + Java2D）
+ *  - 仅读取头部获取尺寸
+ *  - 逐级减半缩放，避免一次性大比例缩小产生锯齿
+ *  - 按格式名编码（webp 需要类路径上存在对应 ImageIO 插件）
+ *  - 降采样解码小图、读取 JPEG EXIF 方向（供元数据 / 占位图）
+ */
+public final class ImageUtils {
+
+    private static final int EXIF_SCAN_BYTES = 128 * 1024;
+
+    private ImageUtils() {}
+
+    /**
+     * 不解码像素，仅读取尺寸；无法识别时返回 null
+     */
+    public static Dimension readSize(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 解码时按整数步长降采样，长边约为 maxDim；只用于占位图，不关心画质
+     * @return 无法识别时返回 null
+     */
+    public static BufferedImage readThumbnail(Path file, int maxDim) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / maxDim);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 读取 JPEG APP1 段中的 EXIF Orientation（0x0112）；非 JPEG 或没有该标签时返回 1
+     */
+    public static int readExifOrientation(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(EXIF_SCAN_BYTES);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(head);
+        if (head.length < 4 || (buf.getShort(0) & 0xFFFF) != 0xFFD8) return 1;
+        int pos = 2;
+        while (pos + 4 <= head.length) {
+            int marker = buf.getShort(pos) & 0xFFFF;
+            int len = buf.getShort(pos + 2) & 0xFFFF;
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) break;
+            int seg = pos + 4;
+            if (marker == 0xFFE1 && seg + 14 <= head.length
+                    && head[seg] == 'E' && head[seg + 1] == 'x' && head[seg + 2] == 'i' && head[seg + 3] == 'f') {
+                return tiffOrientation(buf, seg + 6, Math.min(head.length, pos + 2 + len));
+            }
+            pos += 2 + len;
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(ByteBuffer buf, int tiff, int end) {
+        ByteBuffer b = buf.duplicate();
+        b.order(b.get(tiff) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff + b.getInt(tiff + 4);
+        if (ifd + 2 > end) return 1;
+        int count = b.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) break;
+            if ((b.getShort(entry) & 0xFFFF) == 0x0112) {
+                int v = b.getShort(entry + 8) & 0xFFFF;
+                return v >= 1 && v <= 8 ? v : 1;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 按 EXIF 方向把像素转正（5~8 会交换宽高）
+     */
+    public static BufferedImage applyOrientation(BufferedImage img, int orientation) {
+        if (orientation <= 1 || orientation > 8) return img;
+        int w = img.getWidth();
+        int h = img.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(Math.PI / 2); t.scale(1, -1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.rotate(Math.PI / 2); t.scale(-1, 1); }
+            case 8 -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.drawImage(img, t, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    public static boolean canWrite(String format) {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
+
+    public static BufferedImage resize(BufferedImage src, int targetWidth, int targetHeight) {
+        BufferedImage current = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    /**
+     * 编码为指定格式；jpeg 会先铺白底去掉透明通道
+     * @param quality 0~1，格式不支持压缩参数时忽略
+     */
+    public static byte[] encode(BufferedImage img, String format, float quality) throws IOException {
+        BufferedImage out = img;
+        if ("jpeg".equals(format) && img.getColorModel().hasAlpha()) {
+            out = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = out.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, img.getWidth(), img.getHeight());
+                g.drawImage(img, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(bos)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null
+                        && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(out, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bos.toByteArray();
+    }
+}
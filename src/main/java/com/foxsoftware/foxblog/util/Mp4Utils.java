@@ -0,0 +1,126 @@
+package com.foxsoftware.foxblog.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 读取 MP4 / MOV（ISO BMFF）容器头部信息，不解码
+ *  - 只跳读顶层 box 头找到 moov（moov 在文件尾部也只需几次定位读）
+ *  - 时长取 mvhd，画面尺寸取第一个宽高非零的 tkhd
+ */
+public final class Mp4Utils {
+
+    // moov 通常几十 KB ~ 几 MB，超出视为异常文件不解析
+    private static final long MAX_MOOV_BYTES = 32L * 1024 * 1024;
+
+    private Mp4Utils() {}
+
+    public record VideoInfo(Long durationMs, Integer width, Integer height) {}
+
+    /**
+     * @return 无法识别时返回 null
+     */
+    public static VideoInfo probe(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long pos = 0;
+            ByteBuffer header = ByteBuffer.allocate(16);
+            while (pos + 8 <= size) {
+                header.clear();
+                ch.read(header, pos);
+                header.flip();
+                if (header.remaining() < 8) return null;
+                long boxSize = header.getInt() & 0xFFFFFFFFL;
+                int type = header.getInt();
+                int headerLen = 8;
+                if (boxSize == 1) {
+                    if (header.remaining() < 8) return null;
+                    boxSize = header.getLong();
+                    headerLen = 16;
+                } else if (boxSize == 0) {
+                    boxSize = size - pos;
+                }
+                if (boxSize < headerLen) return null;
+                if (type == fourCc("moov")) {
+                    long len = boxSize - headerLen;
+                    if (len > MAX_MOOV_BYTES) return null;
+                    ByteBuffer moov = ByteBuffer.allocate((int) len);
+                    while (moov.hasRemaining() && ch.read(moov, pos + headerLen + moov.position()) > 0) {
+                        // 读满为止
+                    }
+                    moov.flip();
+                    return parseMoov(moov);
+                }
+                pos += boxSize;
+            }
+            return null;
+        }
+    }
+
+    private static VideoInfo parseMoov(ByteBuffer moov) {
+        Long durationMs = null;
+        Integer width = null;
+        Integer height = null;
+        while (moov.remaining() >= 8) {
+            int start = moov.position();
+            long boxSize = moov.getInt() & 0xFFFFFFFFL;
+            int type = moov.getInt();
+            if (boxSize < 8 || start + boxSize > moov.limit()) break;
+            int end = (int) (start + boxSize);
+            if (type == fourCc("mvhd")) {
+                durationMs = mvhdDuration(moov.slice(moov.position(), end - moov.position()));
+            } else if (type == fourCc("trak") && width == null) {
+                int[] wh = trakSize(moov.slice(moov.position(), end - moov.position()));
+                if (wh != null) {
+                    width = wh[0];
+                    height = wh[1];
+                }
+            }
+            moov.position(end);
+        }
+        return new VideoInfo(durationMs, width, height);
+    }
+
+    private static Long mvhdDuration(ByteBuffer b) {
+        int version = b.get(0) & 0xFF;
+        long timescale;
+        long duration;
+        if (version == 1) {
+            if (b.limit() < 32) return null;
+            timescale = b.getInt(20) & 0xFFFFFFFFL;
+            duration = b.getLong(24);
+        } else {
+            if (b.limit() < 20) return null;
+            timescale = b.getInt(12) & 0xFFFFFFFFL;
+            duration = b.getInt(16) & 0xFFFFFFFFL;
+        }
+        if (timescale == 0 || duration < 0) return null;
+        return duration * 1000 / timescale;
+    }
+
+    private static int[] trakSize(ByteBuffer trak) {
+        while (trak.remaining() >= 8) {
+            int start = trak.position();
+            long boxSize = trak.getInt() & 0xFFFFFFFFL;
+            int type = trak.getInt();
+            if (boxSize < 8 || start + boxSize > trak.limit()) break;
+            if (type == fourCc("tkhd")) {
+                // tkhd 末尾 8 字节为 16.16 定点宽高
+                int end = (int) (start + boxSize);
+                if (end - 8 < trak.position()) return null;
+                int w = trak.getInt(end - 8) >>> 16;
+                int h = trak.getInt(end - 4) >>> 16;
+                return w > 0 && h > 0 ? new int[]{w, h} : null;
+            }
+            trak.position((int) (start + boxSize));
+        }
+        return null;
+    }
+
+    private static int fourCc(String s) {
+        return (s.charAt(0) << 24) | (s.charAt(1) << 16) | (s.charAt(2) << 8) | s.charAt(3);
+    }
+}
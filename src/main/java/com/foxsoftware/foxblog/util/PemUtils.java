@@ -19,6 +19,7 @@ import java.util.Base64;
  *  - PRIVATE KEY (PKCS#8)
  *  - PUBLIC KEY (X.509)
  *  - EC PRIVATE KEY
+ * PKCS#8 / X.509 依次尝试 RSA、EC、Ed25519
  */
 public final class PemUtils {
 
@@ -53,7 +54,7 @@ public final class PemUtils {
             byte[] der = Base64.getDecoder().decode(txt);
             X509EncodedKeySpec spec = new X509EncodedKeySpec(der);
 
-            // 先试 RSA 再试 EC
+            // 依次尝试 RSA、EC、Ed25519
             try {
                 return KeyFactory.getInstance("RSA").generatePublic(spec);
             } catch (Exception ignore) {
@@ -62,6 +63,10 @@ public final class PemUtils {
                 return KeyFactory.getInstance("EC").generatePublic(spec);
             } catch (Exception ignore) {
             }
+            try {
+                return KeyFactory.getInstance("Ed25519").generatePublic(spec);
+            } catch (Exception ignore) {
+            }
             throw new IllegalArgumentException("Unsupported public key format");
         } catch (Exception e) {
             throw new IllegalStateException("Failed to load public key", e);
@@ -80,6 +85,9 @@ public final class PemUtils {
         try {
             return KeyFactory.getInstance("EC").generatePrivate(spec);
         } catch (Exception ignore) {}
+        try {
+            return KeyFactory.getInstance("Ed25519").generatePrivate(spec);
+        } catch (Exception ignore) {}
         throw new GeneralSecurityException("Unsupported PKCS#8 private key");
     }
 
@@ -1,10 +1,12 @@
 package com.foxsoftware.foxblog.util;
 
-import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
-import java.time.Instant;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -20,6 +22,8 @@ import java.nio.charset.StandardCharsets;
 /**
  * RFC 6238 TOTP 工具
  * - 默认参数：HMAC-SHA1, 30s 步长, 6 位
+ * - 校验路径不分配对象：解码后的密钥按 secret 缓存，Mac 放在小对象池中复用，验证码按整数比较
+ * - 不用 ThreadLocal：请求跑在虚拟线程上时每个请求都是新线程，ThreadLocal 等于每次新建 Mac
  */
 
 public final class TotpUtils {
@@ -29,6 +33,14 @@ public final class TotpUtils {
     private static final int DEFAULT_DIGITS = 6;
     private static final int DEFAULT_PERIOD = 30;
     private static final String HMAC_ALGO = "HmacSHA1";
+    private static final int DIGITS_MODULUS = 1_000_000;
+    private static final int KEY_CACHE_SIZE = 256;
+    private static final int HMAC_POOL_SIZE = 16;
+
+    // secret -> 解码后的密钥；首次绑定的临时 secret 也会进来，超过上限整体清空
+    private static final Map<String, SecretKeySpec> KEY_CACHE = new ConcurrentHashMap<>();
+    // 池空时临时新建，池满时丢弃；登录并发很低，16 个足够
+    private static final BlockingQueue<HmacContext> HMAC_POOL = new ArrayBlockingQueue<>(HMAC_POOL_SIZE);
 
     private TotpUtils() {}
 
@@ -42,22 +54,54 @@ public final class TotpUtils {
                                        String code,
                                        int allowedDriftSteps) {
         if (base32Secret == null || base32Secret.isBlank()) return false;
-        if (code == null || !code.matches("\\d{6}")) return false;
+        SecretKeySpec key;
+        try {
+            key = decodedKey(base32Secret);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return validateCode(key, code, allowedDriftSteps, currentTimeStep());
+    }
 
-        long timeStep = currentTimeStep();
+    /**
+     * 按给定时间步校验（测试用 RFC 6238 向量与漂移窗口）
+     */
+    static boolean validateCode(SecretKeySpec key, String code, int allowedDriftSteps, long timeStep) {
+        int expected = parseCode(code);
+        if (expected < 0) return false;
+        HmacContext ctx = acquire();
         try {
+            ctx.useKey(key);
+            // 不提前返回：各漂移步都计算一遍，耗时与命中位置无关
+            int matched = 0;
             for (long step = timeStep - allowedDriftSteps; step <= timeStep + allowedDriftSteps; step++) {
-                String expected = generateTotp(base32Secret, step);
-                if (constantTimeEquals(expected, code)) {
-                    return true;
-                }
+                matched |= ctx.totp(step) == expected ? 1 : 0;
             }
-            return false;
+            return matched != 0;
         } catch (Exception e) {
             return false;
+        } finally {
+            HMAC_POOL.offer(ctx);
+        }
+    }
+
+    /**
+     * 计算给定时间步的 6 位验证码
+     */
+    static int generateCode(SecretKeySpec key, long timeStep) throws GeneralSecurityException {
+        HmacContext ctx = acquire();
+        try {
+            ctx.useKey(key);
+            return ctx.totp(timeStep);
+        } finally {
+            HMAC_POOL.offer(ctx);
         }
     }
 
+    static long timeStep(long epochSeconds) {
+        return epochSeconds / DEFAULT_PERIOD;
+    }
+
     public static String buildOtpAuthUrl(String issuer, String accountName, String base32Secret) {
         String encIssuer = urlEncode(issuer);
         String encAccount = urlEncode(accountName);
@@ -70,25 +114,76 @@ public final class TotpUtils {
     }
 
     private static long currentTimeStep() {
-        return Instant.now().getEpochSecond() / DEFAULT_PERIOD;
+        return timeStep(System.currentTimeMillis() / 1000);
     }
 
-    private static String generateTotp(String base32Secret, long timeStep) throws GeneralSecurityException {
-        byte[] key = base32Decode(base32Secret);
-        byte[] msg = ByteBuffer.allocate(8).putLong(timeStep).array();
-        Mac mac = Mac.getInstance(HMAC_ALGO);
-        mac.init(new SecretKeySpec(key, HMAC_ALGO));
-        byte[] hash = mac.doFinal(msg);
-
-        // 动态截取
-        int offset = hash[hash.length - 1] & 0x0F;
-        int binary = ((hash[offset] & 0x7F) << 24) |
-                ((hash[offset + 1] & 0xFF) << 16) |
-                ((hash[offset + 2] & 0xFF) << 8) |
-                (hash[offset + 3] & 0xFF);
-        int otp = binary % (int) Math.pow(10, DEFAULT_DIGITS);
-
-        return String.format(Locale.US, "%0" + DEFAULT_DIGITS + "d", otp);
+    /**
+     * 6 位数字转为整数；格式不对返回 -1
+     */
+    private static int parseCode(String code) {
+        if (code == null || code.length() != DEFAULT_DIGITS) return -1;
+        int v = 0;
+        for (int i = 0; i < DEFAULT_DIGITS; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static SecretKeySpec decodedKey(String base32Secret) {
+        SecretKeySpec key = KEY_CACHE.get(base32Secret);
+        if (key == null) {
+            if (KEY_CACHE.size() >= KEY_CACHE_SIZE) KEY_CACHE.clear();
+            key = new SecretKeySpec(base32Decode(base32Secret), HMAC_ALGO);
+            KEY_CACHE.put(base32Secret, key);
+        }
+        return key;
+    }
+
+    private static HmacContext acquire() {
+        HmacContext ctx = HMAC_POOL.poll();
+        return ctx != null ? ctx : new HmacContext();
+    }
+
+    /**
+     * 池中对象，同一时刻只归一个调用方：Mac 实例、输出缓冲区、当前已 init 的密钥（同一密钥不重复 init）
+     */
+    private static final class HmacContext {
+        private final Mac mac;
+        private final byte[] hash;
+        private SecretKeySpec key;
+
+        private HmacContext() {
+            try {
+                mac = Mac.getInstance(HMAC_ALGO);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            hash = new byte[mac.getMacLength()];
+        }
+
+        void useKey(SecretKeySpec k) throws GeneralSecurityException {
+            if (k != key) {
+                mac.init(k);
+                key = k;
+            }
+        }
+
+        int totp(long timeStep) throws GeneralSecurityException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                mac.update((byte) (timeStep >>> shift));
+            }
+            mac.doFinal(hash, 0);
+
+            // 动态截取
+            int offset = hash[hash.length - 1] & 0x0F;
+            int binary = ((hash[offset] & 0x7F) << 24) |
+                    ((hash[offset + 1] & 0xFF) << 16) |
+                    ((hash[offset + 2] & 0xFF) << 8) |
+                    (hash[offset + 3] & 0xFF);
+            return binary % DIGITS_MODULUS;
+        }
     }
 
     // ================= Base32 =================
@@ -113,7 +208,7 @@ public final class TotpUtils {
         return sb.toString();
     }
 
-    private static byte[] base32Decode(String s) {
+    static byte[] base32Decode(String s) {
         String upper = s.replace("=", "").toUpperCase(Locale.US);
         int expectedLen = upper.length() * 5 / 8;
         byte[] result = new byte[expectedLen];
@@ -138,15 +233,6 @@ public final class TotpUtils {
         return result;
     }
 
-    private static boolean constantTimeEquals(String a, String b) {
-        if (a == null || b == null || a.length() != b.length()) return false;
-        int r = 0;
-        for (int i = 0; i < a.length(); i++) {
-            r |= a.charAt(i) ^ b.charAt(i);
-        }
-        return r == 0;
-    }
-
     private static String urlEncode(String v) {
         return URLEncoder.encode(v, StandardCharsets.UTF_8);
     }
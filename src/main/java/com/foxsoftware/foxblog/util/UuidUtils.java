@@ -0,0 +1,18 @@
+package com.foxsoftware.foxblog.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+public final class UuidUtils {
+    private UuidUtils(){}
+
+    /**
+     * UUID -> BINARY(16)（原生 SQL 绑定参数用）
+     */
+    public static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
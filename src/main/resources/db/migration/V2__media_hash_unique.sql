@@ -0,0 +1,26 @@
+-- ========== 媒体哈希唯一化 ==========
+-- 并发上传可能产生同哈希多条记录：保留每组 id 最小的一条
+
+-- 1. 帖子引用改指向保留记录（同一帖子已引用保留记录时忽略冲突，由下一步级联删除）
+UPDATE IGNORE post_media pm
+    JOIN media m ON m.id = pm.media_id
+    JOIN (SELECT sha256_hash, MIN(id) AS keep_id
+          FROM media
+          WHERE sha256_hash IS NOT NULL
+          GROUP BY sha256_hash
+          HAVING COUNT(*) > 1) d ON d.sha256_hash = m.sha256_hash
+SET pm.media_id = d.keep_id
+WHERE pm.media_id <> d.keep_id;
+
+-- 2. 删除多余记录（其文件成为孤儿，由存储清理处理）
+DELETE m FROM media m
+    JOIN (SELECT sha256_hash, MIN(id) AS keep_id
+          FROM media
+          WHERE sha256_hash IS NOT NULL
+          GROUP BY sha256_hash
+          HAVING COUNT(*) > 1) d ON d.sha256_hash = m.sha256_hash
+WHERE m.id <> d.keep_id;
+
+-- 3. 普通索引升级为唯一约束
+DROP INDEX idx_media_hash ON media;
+CREATE UNIQUE INDEX uk_media_hash ON media (sha256_hash);
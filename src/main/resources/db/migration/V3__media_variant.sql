@@ -0,0 +1,21 @@
+-- ========== 媒体衍生图（缩略图 / 响应式宽度） ==========
+ALTER TABLE media
+    ADD COLUMN variants_ready TINYINT(1) NOT NULL DEFAULT 0 COMMENT '衍生图是否已生成完毕' AFTER sha256_hash;
+
+CREATE TABLE media_variant (
+                               id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                               media_id BINARY(16) NOT NULL COMMENT '原始媒体ID',
+                               width INT NOT NULL COMMENT '像素宽度',
+                               height INT NOT NULL COMMENT '像素高度',
+                               format VARCHAR(16) NOT NULL COMMENT 'jpeg / webp',
+                               storage_path VARCHAR(1024) NOT NULL COMMENT '文件存储路径',
+                               mime_type VARCHAR(255) COMMENT 'MIME类型',
+                               size_bytes BIGINT UNSIGNED COMMENT '大小 (字节)',
+                               sha256_hash VARCHAR(64) COMMENT '内容哈希 (ETag)',
+                               created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+                               CONSTRAINT uk_variant UNIQUE (media_id, width, format),
+                               CONSTRAINT fk_variant_media FOREIGN KEY (media_id) REFERENCES media(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 重启后扫描未完成的图片
+CREATE INDEX idx_media_variants_pending ON media (variants_ready, created_at);
@@ -0,0 +1,14 @@
+-- ========== 媒体引用计数 + 孤儿清理 ==========
+ALTER TABLE media
+    ADD COLUMN ref_count INT NOT NULL DEFAULT 0 COMMENT '被帖子引用次数 (post_media 行数)' AFTER variants_ready;
+
+-- 回填现有引用
+UPDATE media m
+SET m.ref_count = (SELECT COUNT(*) FROM post_media pm WHERE pm.media_id = m.id);
+
+-- 清理任务：按引用数 + 创建时间取候选
+CREATE INDEX idx_media_gc ON media (ref_count, created_at);
+
+-- 磁盘巡检：按存储路径反查记录（前缀索引）
+CREATE INDEX idx_media_storage_path ON media (storage_path(255));
+CREATE INDEX idx_variant_storage_path ON media_variant (storage_path(255));
@@ -0,0 +1,11 @@
+-- ========== 媒体元数据（上传后后台提取） ==========
+ALTER TABLE media
+    ADD COLUMN width INT NULL COMMENT '显示宽度 (像素，已按 EXIF 方向校正)' AFTER ref_count,
+    ADD COLUMN height INT NULL COMMENT '显示高度 (像素，已按 EXIF 方向校正)' AFTER width,
+    ADD COLUMN orientation INT NULL COMMENT 'EXIF 方向 1~8' AFTER height,
+    ADD COLUMN duration_ms BIGINT NULL COMMENT '视频时长 (毫秒)' AFTER orientation,
+    ADD COLUMN blurhash VARCHAR(64) NULL COMMENT '占位图 BlurHash' AFTER duration_ms,
+    ADD COLUMN metadata_ready TINYINT(1) NOT NULL DEFAULT 0 COMMENT '元数据是否已提取' AFTER blurhash;
+
+-- 重启后扫描未提取的媒体
+CREATE INDEX idx_media_metadata_pending ON media (metadata_ready, created_at);
@@ -0,0 +1,12 @@
+-- ========== 已吊销的访问令牌（按 jti） ==========
+CREATE TABLE revoked_token (
+                               jti VARCHAR(64) NOT NULL PRIMARY KEY COMMENT 'JWT ID',
+                               subject VARCHAR(50) COMMENT '令牌所属用户',
+                               expires_at DATETIME(6) NOT NULL COMMENT '令牌原过期时间，过期后记录可删除',
+                               revoked_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+                               reason VARCHAR(32) COMMENT 'logout / admin / reuse'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 启动加载 / 清理按过期时间，多实例同步按吊销时间
+CREATE INDEX idx_revoked_expires ON revoked_token (expires_at);
+CREATE INDEX idx_revoked_at ON revoked_token (revoked_at);
@@ -0,0 +1,17 @@
+-- ========== 刷新令牌（轮换 + 重用检测） ==========
+CREATE TABLE refresh_token (
+                               id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                               token_hash VARCHAR(64) NOT NULL COMMENT '令牌 SHA-256 (hex)，原文不落库',
+                               family_id VARCHAR(36) NOT NULL COMMENT '同一次登录派生出的令牌链',
+                               admin_id BIGINT UNSIGNED NOT NULL,
+                               username VARCHAR(50) NOT NULL,
+                               issued_at DATETIME(6) NOT NULL,
+                               expires_at DATETIME(6) NOT NULL,
+                               family_expires_at DATETIME(6) NOT NULL COMMENT '整条链的绝对过期时间',
+                               used_at DATETIME(6) NULL COMMENT '已换新的时间；再次出现即视为重用',
+                               revoked TINYINT(1) NOT NULL DEFAULT 0,
+                               CONSTRAINT uk_refresh_hash UNIQUE (token_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_refresh_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_expires ON refresh_token (expires_at);
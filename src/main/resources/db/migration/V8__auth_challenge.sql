@@ -0,0 +1,14 @@
+-- ========== 登录挑战（多实例共享，security.login.challenge-store=database） ==========
+CREATE TABLE auth_challenge (
+                                id BINARY(16) NOT NULL PRIMARY KEY,
+                                admin_id BIGINT UNSIGNED NOT NULL,
+                                type VARCHAR(10) NOT NULL COMMENT 'SETUP / LOGIN',
+                                created_at DATETIME(6) NOT NULL,
+                                expire_at DATETIME(6) NOT NULL,
+                                origin_ip VARCHAR(64),
+                                temp_secret VARCHAR(128) COMMENT '仅 SETUP：待绑定的 TOTP secret，绑定完成或过期即删除',
+                                attempts INT NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 过期清理按 expire_at 升序分批删除
+CREATE INDEX idx_challenge_expire ON auth_challenge (expire_at);
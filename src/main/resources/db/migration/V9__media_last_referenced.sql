@@ -0,0 +1,10 @@
+-- ========== 媒体最近引用时间（孤儿清理的宽限期起点） ==========
+-- 去重命中（复用已有 ref_count = 0 的记录）时刷新，避免刚交给客户端的媒体在绑定帖子前被清理
+ALTER TABLE media
+    ADD COLUMN last_referenced_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) COMMENT '创建或去重复用时间 (UTC)' AFTER ref_count;
+
+UPDATE media SET last_referenced_at = created_at;
+
+-- 清理任务改按引用数 + 最近引用时间取候选
+DROP INDEX idx_media_gc ON media;
+CREATE INDEX idx_media_gc ON media (ref_count, last_referenced_at);
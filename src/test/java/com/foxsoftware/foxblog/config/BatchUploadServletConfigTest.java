@@ -0,0 +1,112 @@
+package com.foxsoftware.foxblog.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 真实的内嵌 Tomcat：批量上传路径走独立 Servlet 的大上限，其余 multipart 接口仍是全局小上限
+ */
+@SpringBootTest(classes = BatchUploadServletConfigTest.TestApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.servlet.multipart.max-file-size=1MB",
+                "spring.servlet.multipart.max-request-size=1MB",
+                "app.media.batch.max-file-size=4MB",
+                "app.media.batch.max-request-size=8MB"
+        })
+class BatchUploadServletConfigTest {
+
+    private static final int PAYLOAD = 1536 * 1024;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void batchPathUsesItsOwnLimits() {
+        ResponseEntity<String> resp = rest.postForEntity(BatchUploadServletConfig.BATCH_UPLOAD_PATH,
+                multipart("files", PAYLOAD, 2), String.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resp.getBody()).isEqualTo(String.valueOf(2L * PAYLOAD));
+    }
+
+    @Test
+    void otherMultipartEndpointsKeepGlobalLimits() {
+        ResponseEntity<String> resp = rest.postForEntity("/api/admin/media/upload",
+                multipart("file", PAYLOAD, 1), String.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    private static HttpEntity<MultiValueMap<String, Object>> multipart(String field, int size, int count) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = "f" + i + ".bin";
+            body.add(field, new ByteArrayResource(new byte[size]) {
+                @Override
+                public String getFilename() {
+                    return name;
+                }
+            });
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return new HttpEntity<>(body, headers);
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            MultipartAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({BatchUploadServletConfig.class, UploadController.class})
+    static class TestApp {
+    }
+
+    @RestController
+    static class UploadController {
+
+        @PostMapping("/api/admin/media/upload")
+        long upload(@RequestParam("file") MultipartFile file) {
+            return file.getSize();
+        }
+
+        @PostMapping(BatchUploadServletConfig.BATCH_UPLOAD_PATH)
+        long uploadBatch(@RequestParam("files") List<MultipartFile> files) {
+            return files.stream().mapToLong(MultipartFile::getSize).sum();
+        }
+    }
+}
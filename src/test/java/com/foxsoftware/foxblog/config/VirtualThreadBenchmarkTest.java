@@ -0,0 +1,127 @@
+package com.foxsoftware.foxblog.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 阻塞型接口在平台线程池与虚拟线程下的吞吐与延迟，默认不运行：
+ *   mvn test -Dtest=VirtualThreadBenchmarkTest -Dfoxblog.bench=true
+ * 内嵌 Tomcat + 一个 sleep 模拟 JDBC / 文件 IO 等待的 Servlet；平台线程为 Tomcat 默认的 200 线程，
+ * 虚拟线程与 spring.threads.virtual.enabled=true 时相同（VirtualThreadExecutor）。并发数高于 200 时差异才显现
+ */
+@EnabledIfSystemProperty(named = "foxblog.bench", matches = "true")
+class VirtualThreadBenchmarkTest {
+
+    private static final int BLOCK_MILLIS = 50;
+    private static final int CONCURRENCY = 800;
+    private static final int REQUESTS = 8_000;
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void blockingEndpointPlatformVersusVirtual() throws Exception {
+        run("platform (maxThreads=200)", false);
+        run("virtual", true);
+    }
+
+    private void run(String name, boolean virtual) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.resolve(name.substring(0, 4)).toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("maxConnections", String.valueOf(CONCURRENCY * 2));
+        connector.setProperty("acceptCount", String.valueOf(CONCURRENCY));
+        if (virtual) {
+            connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("bench-vt-"));
+        }
+        tomcat.setConnector(connector);
+        Context ctx = tomcat.addContext("", baseDir.toString());
+        Tomcat.addServlet(ctx, "blocking", new BlockingServlet());
+        ctx.addServletMappingDecoded("/block", "blocking");
+        tomcat.start();
+        try {
+            URI uri = URI.create("http://127.0.0.1:" + connector.getLocalPort() + "/block");
+            // 预热
+            drive(uri, CONCURRENCY / 4, REQUESTS / 10);
+            Result r = drive(uri, CONCURRENCY, REQUESTS);
+            System.out.printf("[BENCH] %-28s %,8.0f req/s  p50 %,5d ms  p99 %,5d ms  errors %d%n",
+                    name, r.throughput, r.p50, r.p99, r.errors);
+            assertThat(r.errors).isZero();
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static Result drive(URI uri, int concurrency, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int idx = i;
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resp, err) -> {
+                        latencies[idx] = System.nanoTime() - sent;
+                        if (err != null || resp.statusCode() != 200) errors.incrementAndGet();
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return new Result(requests / seconds,
+                latencies[requests / 2] / 1_000_000,
+                latencies[(int) (requests * 0.99)] / 1_000_000,
+                errors.get());
+    }
+
+    private record Result(double throughput, long p50, long p99, int errors) {
+    }
+
+    private static final class BlockingServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            try {
+                Thread.sleep(BLOCK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resp.setContentType("text/plain");
+            resp.getWriter().write("ok");
+        }
+    }
+}
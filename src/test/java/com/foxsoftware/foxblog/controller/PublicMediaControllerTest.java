@@ -0,0 +1,71 @@
+package com.foxsoftware.foxblog.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicMediaControllerTest {
+
+    private static final String ETAG = "\"abc\"";
+    private static final long LENGTH = 1000;
+
+    @Test
+    void noRangeServesWholeFile() {
+        assertThat(PublicMediaController.resolveRanges(null, null, ETAG, LENGTH)).isEmpty();
+        assertThat(PublicMediaController.resolveRanges(" ", null, ETAG, LENGTH)).isEmpty();
+    }
+
+    @Test
+    void singleAndSuffixRanges() {
+        assertThat(PublicMediaController.resolveRanges("bytes=0-99", null, ETAG, LENGTH))
+                .containsExactly(new long[]{0, 99});
+        assertThat(PublicMediaController.resolveRanges("bytes=-100", null, ETAG, LENGTH))
+                .containsExactly(new long[]{900, 999});
+        // 末尾越界按文件长度截断
+        assertThat(PublicMediaController.resolveRanges("bytes=950-2000", null, ETAG, LENGTH))
+                .containsExactly(new long[]{950, 999});
+    }
+
+    @Test
+    void overlappingAndAdjacentRangesAreCoalesced() {
+        List<long[]> ranges = PublicMediaController.resolveRanges(
+                "bytes=200-299,0-99,50-149,150-159,500-599", null, ETAG, LENGTH);
+        assertThat(ranges).containsExactly(new long[]{0, 159}, new long[]{200, 299}, new long[]{500, 599});
+    }
+
+    @Test
+    void overlapsCollapseToSingleRange() {
+        assertThat(PublicMediaController.resolveRanges("bytes=10-19,0-15", null, ETAG, LENGTH))
+                .containsExactly(new long[]{0, 19});
+    }
+
+    @Test
+    void requestedBytesBeyondFileLengthServeWholeFile() {
+        // 十段 0-199 合计 2000 字节，超过文件长度
+        String header = "bytes=" + String.join(",", Collections.nCopies(10, "0-199"));
+        assertThat(PublicMediaController.resolveRanges(header, null, ETAG, LENGTH)).isEmpty();
+    }
+
+    @Test
+    void ifRangeMismatchServesWholeFile() {
+        assertThat(PublicMediaController.resolveRanges("bytes=0-99", "\"other\"", ETAG, LENGTH)).isEmpty();
+        assertThat(PublicMediaController.resolveRanges("bytes=0-99", "Wed, 21 Oct 2015 07:28:00 GMT", ETAG, LENGTH)).isEmpty();
+        assertThat(PublicMediaController.resolveRanges("bytes=0-99", ETAG, ETAG, LENGTH))
+                .containsExactly(new long[]{0, 99});
+    }
+
+    @Test
+    void unsatisfiableRangeIsRejected() {
+        assertThatThrownBy(() -> PublicMediaController.resolveRanges("bytes=1000-1099", null, ETAG, LENGTH))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 部分可满足时只返回可满足的区段
+        assertThat(PublicMediaController.resolveRanges("bytes=0-9,1000-1099", null, ETAG, LENGTH))
+                .containsExactly(new long[]{0, 9});
+        assertThatThrownBy(() -> PublicMediaController.resolveRanges("items=0-1", null, ETAG, LENGTH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.foxsoftware.foxblog.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 公开接口带伪造 Bearer 时 JwtAuthenticationFilter 的粗略耗时（ns/op），默认不运行：
+ *   mvn test -Dtest=JwtFilterSkipBenchmarkTest -Dfoxblog.bench=true
+ * 伪造 token 格式正确、kid 存在但签名来自另一把密钥：不跳过时每次都要走一遍 RS256 验签（失败结果不缓存）
+ */
+@EnabledIfSystemProperty(named = "foxblog.bench", matches = "true")
+class JwtFilterSkipBenchmarkTest {
+
+    private static final int ITERATIONS = 5_000;
+    private static final String PATH = "/api/public/posts/1";
+    private static final FilterChain CHAIN = (req, res) -> { };
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void publicRequestWithBogusBearer() throws Exception {
+        KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+        gen.initialize(2048);
+        KeyPair serverKey = gen.generateKeyPair();
+        ProductionJwtProvider provider = provider(serverKey);
+
+        // kid 与服务端一致，签名用另一把密钥
+        SignedJWT forged = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("k1").build(),
+                new JWTClaimsSet.Builder().subject("admin").jwtID("jti")
+                        .expirationTime(Date.from(Instant.now().plusSeconds(600))).build());
+        forged.sign(new RSASSASigner(gen.generateKeyPair().getPrivate()));
+        String bogus = "Bearer " + forged.serialize();
+
+        TokenRevocationList revocationList = mock(TokenRevocationList.class);
+        JwtAuthenticationFilter skipping = new JwtAuthenticationFilter(provider, revocationList,
+                new AntPathRequestMatcher("/api/public/**"));
+        RequestMatcher none = request -> false;
+        JwtAuthenticationFilter notSkipping = new JwtAuthenticationFilter(provider, revocationList, none);
+
+        MockHttpServletResponse rejected = run(notSkipping, bogus);
+        assertThat(rejected.getStatus()).isEqualTo(401);
+        assertThat(run(skipping, bogus).getStatus()).isEqualTo(200);
+
+        double noHeaderNs = measure(() -> run(notSkipping, null));
+        double skippedNs = measure(() -> run(skipping, bogus));
+        double verifiedNs = measure(() -> run(notSkipping, bogus));
+        print("public, no Authorization", noHeaderNs);
+        print("public, bogus bearer, skipped", skippedNs);
+        print("public, bogus bearer, verified (401)", verifiedNs);
+    }
+
+    private ProductionJwtProvider provider(KeyPair keyPair) throws Exception {
+        Path priv = Files.writeString(tmp.resolve("private.pem"), pem("PRIVATE KEY", keyPair.getPrivate()));
+        Path pub = Files.writeString(tmp.resolve("public.pem"), pem("PUBLIC KEY", keyPair.getPublic()));
+        JwtSecurityProperties.KeySpec spec = new JwtSecurityProperties.KeySpec();
+        spec.setId("k1");
+        spec.setPrivatePemLocation("file:" + priv);
+        spec.setPublicPemLocation("file:" + pub);
+        JwtSecurityProperties props = new JwtSecurityProperties();
+        props.setActiveKey(spec);
+        ProductionJwtProvider provider = new ProductionJwtProvider(props,
+                new PemKeyLoader(new DefaultResourceLoader()), new SimpleMeterRegistry());
+        provider.init();
+        return provider;
+    }
+
+    private static String pem(String type, Key key) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(key.getEncoded())
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static MockHttpServletResponse run(JwtAuthenticationFilter filter, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.setServletPath(PATH);
+        if (authorization != null) request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, CHAIN);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    /**
+     * 先预热同样次数，再计时
+     */
+    private static double measure(Runnable op) {
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        return (double) (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static void print(String name, double nsPerOp) {
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", name, nsPerOp);
+    }
+}
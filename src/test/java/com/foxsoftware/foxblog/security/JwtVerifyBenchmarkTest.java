@@ -0,0 +1,116 @@
+package com.foxsoftware.foxblog.security;
+
+import com.foxsoftware.foxblog.security.ProductionJwtProvider.VerifiedToken;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 鉴权热路径的粗略耗时（ns/op），默认不运行：
+ *   mvn test -Dtest=JwtVerifyBenchmarkTest -Dfoxblog.bench=true
+ * 只用于对比量级（RS256 vs Ed25519、验签 vs 缓存命中、Bloom 放行），不作为回归断言
+ */
+@EnabledIfSystemProperty(named = "foxblog.bench", matches = "true")
+class JwtVerifyBenchmarkTest {
+
+    // 公钥运算慢，迭代次数少一些；内存查找多跑几轮
+    private static final int CRYPTO_ITERATIONS = 1_000;
+    private static final int LOOKUP_ITERATIONS = 100_000;
+
+    @Test
+    void signAndVerify() throws Exception {
+        KeyPairGenerator rsaGen = KeyPairGenerator.getInstance("RSA");
+        rsaGen.initialize(2048);
+        KeyPair rsa = rsaGen.generateKeyPair();
+        KeyPair ed = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+
+        report("RS256", JWSAlgorithm.RS256,
+                new RSASSASigner(rsa.getPrivate()), new RSASSAVerifier((RSAPublicKey) rsa.getPublic()));
+        report("Ed25519", JWSAlgorithm.EdDSA,
+                new Ed25519JwsSupport.Signer(ed.getPrivate()), new Ed25519JwsSupport.Verifier(ed.getPublic()));
+    }
+
+    @Test
+    void verifiedCacheHit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10_000, 30);
+        Instant now = Instant.now();
+        String token = "eyJhbGciOiJFZERTQSJ9." + "x".repeat(200) + ".sig";
+        cache.put(VerifiedTokenCache.digest(token),
+                new VerifiedToken("admin", "jti", List.of("ADMIN"), now, now.plusSeconds(600), "k1"), now);
+
+        double ns = measure(LOOKUP_ITERATIONS, () -> {
+            if (cache.get(VerifiedTokenCache.digest(token), now) == null) throw new AssertionError();
+        });
+        print("verified-cache hit (digest + get)", ns);
+    }
+
+    @Test
+    void revocationBloomMiss() {
+        TokenRevocationList.BloomFilter bloom = new TokenRevocationList.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put("revoked-" + i);
+        String jti = "3f2b8c1e-7a4d-4e0b-9c6f-2d1a5b8e9f00";
+        double ns = measure(LOOKUP_ITERATIONS, () -> bloom.mightContain(jti));
+        print("revocation bloom lookup", ns);
+    }
+
+    private static void report(String name, JWSAlgorithm alg, JWSSigner signer, JWSVerifier verifier) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("admin")
+                .jwtID("jti")
+                .expirationTime(Date.from(Instant.now().plusSeconds(600)))
+                .build();
+        SignedJWT signed = new SignedJWT(new JWSHeader.Builder(alg).keyID("k1").build(), claims);
+        signed.sign(signer);
+        String token = signed.serialize();
+        assertThat(SignedJWT.parse(token).verify(verifier)).isTrue();
+
+        double signNs = measure(CRYPTO_ITERATIONS, () -> {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(alg).keyID("k1").build(), claims);
+            jwt.sign(signer);
+        });
+        double verifyNs = measure(CRYPTO_ITERATIONS, () -> {
+            if (!SignedJWT.parse(token).verify(verifier)) throw new AssertionError();
+        });
+        print(name + " sign", signNs);
+        print(name + " parse + verify", verifyNs);
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        void run() throws Exception;
+    }
+
+    /**
+     * 先预热同样次数，再计时
+     */
+    private static double measure(int iterations, Op op) {
+        try {
+            for (int i = 0; i < iterations; i++) op.run();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) op.run();
+            return (double) (System.nanoTime() - start) / iterations;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void print(String name, double nsPerOp) {
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", name, nsPerOp);
+    }
+}
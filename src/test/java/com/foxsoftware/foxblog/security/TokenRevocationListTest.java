@@ -0,0 +1,116 @@
+package com.foxsoftware.foxblog.security;
+
+import com.foxsoftware.foxblog.entity.RevokedToken;
+import com.foxsoftware.foxblog.repository.RevokedTokenRepository;
+import com.foxsoftware.foxblog.security.TokenRevocationList.BloomFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    private TokenRevocationList list() {
+        TokenRevocationList list = new TokenRevocationList(repository);
+        ReflectionTestUtils.setField(list, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(list, "falsePositiveRate", 0.01);
+        list.init();
+        return list;
+    }
+
+    // ========== Bloom ==========
+
+    @Test
+    void bloomHasNoFalseNegatives() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put("jti-" + i);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloom.mightContain("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void bloomFalsePositiveRateStaysNearTarget() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put("jti-" + i);
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (bloom.mightContain("other-" + i)) falsePositives++;
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void emptyBloomContainsNothing() {
+        BloomFilter bloom = new BloomFilter(0, 0.01);
+        assertThat(bloom.mightContain("a")).isFalse();
+        bloom.put("a");
+        assertThat(bloom.mightContain("a")).isTrue();
+    }
+
+    // ========== 吊销表 ==========
+
+    @Test
+    void revokedTokensAreRejectedAndOthersPass() {
+        TokenRevocationList list = list();
+        list.revoke("j1", "admin", Instant.now().plusSeconds(600), "LOGOUT");
+
+        verify(repository).insertIfAbsent(eq("j1"), eq("admin"), any(), any(), eq("LOGOUT"));
+        assertThat(list.isRevoked("j1")).isTrue();
+        assertThat(list.isRevoked("j2")).isFalse();
+        assertThat(list.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        TokenRevocationList list = list();
+        list.revoke("j1", "admin", Instant.now().minusSeconds(1), "LOGOUT");
+        assertThat(list.isRevoked("j1")).isFalse();
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherInstances() {
+        TokenRevocationList list = list();
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(record("remote", LocalDateTime.now().plusMinutes(10))));
+
+        assertThat(list.sync()).isEqualTo(1);
+        assertThat(list.isRevoked("remote")).isTrue();
+        assertThat(list.sync()).isZero();
+    }
+
+    @Test
+    void pruneDropsExpiredEntriesAndRebuildsBloom() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                record("expired", LocalDateTime.now().minusMinutes(1)),
+                record("live", LocalDateTime.now().plusMinutes(10))));
+        TokenRevocationList list = list();
+        assertThat(list.isRevoked("expired")).isTrue();
+
+        assertThat(list.prune()).isEqualTo(1);
+        assertThat(list.isRevoked("expired")).isFalse();
+        assertThat(list.isRevoked("live")).isTrue();
+    }
+
+    private static RevokedToken record(String jti, LocalDateTime expiresAt) {
+        return RevokedToken.builder()
+                .jti(jti)
+                .subject("admin")
+                .expiresAt(expiresAt)
+                .revokedAt(LocalDateTime.now())
+                .reason("LOGOUT")
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.foxsoftware.foxblog.security;
+
+import com.foxsoftware.foxblog.security.ProductionJwtProvider.VerifiedToken;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static VerifiedToken token(String jti, Instant expiresAt) {
+        return new VerifiedToken("admin", jti, List.of("ADMIN"), NOW.minusSeconds(60), expiresAt, "k1");
+    }
+
+    @Test
+    void digestIsStableAndDoesNotContainToken() {
+        String token = "header.payload.signature";
+        assertThat(VerifiedTokenCache.digest(token)).isEqualTo(VerifiedTokenCache.digest(token));
+        assertThat(VerifiedTokenCache.digest(token)).isNotEqualTo(VerifiedTokenCache.digest(token + "x"));
+        assertThat(VerifiedTokenCache.digest(token)).doesNotContain("payload").hasSize(43);
+    }
+
+    @Test
+    void hitUntilExpiryPlusSkew() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 30);
+        VerifiedToken vt = token("a", NOW.plusSeconds(60));
+        cache.put("d", vt, NOW);
+
+        assertThat(cache.get("d", NOW)).isSameAs(vt);
+        assertThat(cache.get("d", NOW.plusSeconds(90))).isSameAs(vt);
+        assertThat(cache.get("d", NOW.plusSeconds(91))).isNull();
+        // 过期条目在读取时已移除
+        assertThat(cache.get("d", NOW)).isNull();
+    }
+
+    @Test
+    void fullCacheEvictsExpiredBeforeInserting() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, 0);
+        cache.put("old", token("old", NOW.plusSeconds(10)), NOW);
+        cache.put("live", token("live", NOW.plusSeconds(600)), NOW);
+
+        Instant later = NOW.plusSeconds(60);
+        VerifiedToken fresh = token("fresh", later.plusSeconds(600));
+        cache.put("fresh", fresh, later);
+
+        assertThat(cache.get("fresh", later)).isSameAs(fresh);
+        assertThat(cache.get("live", later)).isNotNull();
+    }
+
+    @Test
+    void fullCacheOfLiveTokensSkipsInsert() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1, 0);
+        cache.put("a", token("a", NOW.plusSeconds(600)), NOW);
+        cache.put("b", token("b", NOW.plusSeconds(600)), NOW);
+
+        assertThat(cache.get("a", NOW)).isNotNull();
+        assertThat(cache.get("b", NOW)).isNull();
+    }
+
+    @Test
+    void disabledWhenSizeIsZero() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, 0);
+        cache.put("a", token("a", NOW.plusSeconds(600)), NOW);
+        assertThat(cache.get("a", NOW)).isNull();
+    }
+}
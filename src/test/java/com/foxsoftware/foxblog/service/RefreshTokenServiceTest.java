@@ -0,0 +1,83 @@
+package com.foxsoftware.foxblog.service;
+
+import com.foxsoftware.foxblog.entity.RefreshToken;
+import com.foxsoftware.foxblog.repository.AdminAuthRepository;
+import com.foxsoftware.foxblog.repository.RefreshTokenRepository;
+import com.foxsoftware.foxblog.service.AdminAuthService.AuthException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final AdminAuthRepository adminAuthRepository = mock(AdminAuthRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, adminAuthRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "ttlDays", 7L);
+        ReflectionTestUtils.setField(service, "sessionMaxDays", 30L);
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.of(token(null)));
+    }
+
+    @Test
+    void rotatesForEnabledAdmin() {
+        when(adminAuthRepository.existsByIdAndEnabledTrue(1L)).thenReturn(true);
+        when(repository.markUsed(eq(10L), any())).thenReturn(1);
+
+        RefreshTokenService.Issued next = service.rotate("raw");
+
+        assertThat(next.username()).isEqualTo("admin");
+        verify(repository).save(any(RefreshToken.class));
+        verify(repository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void disabledAdminRevokesFamily() {
+        when(adminAuthRepository.existsByIdAndEnabledTrue(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.rotate("raw")).isInstanceOf(AuthException.class);
+
+        verify(repository).revokeFamily("family");
+        verify(repository, never()).markUsed(anyLong(), any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void reusedTokenRevokesFamily() {
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.of(token(LocalDateTime.now())));
+        when(adminAuthRepository.existsByIdAndEnabledTrue(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.rotate("raw"))
+                .isInstanceOfSatisfying(AuthException.class, e -> assertThat(e.getCode()).isEqualTo("REFRESH_REUSED"));
+
+        verify(repository).revokeFamily("family");
+        verify(repository, never()).save(any());
+    }
+
+    private static RefreshToken token(LocalDateTime usedAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash("hash")
+                .familyId("family")
+                .adminId(1L)
+                .username("admin")
+                .issuedAt(now)
+                .expiresAt(now.plusDays(1))
+                .familyExpiresAt(now.plusDays(10))
+                .usedAt(usedAt)
+                .revoked(false)
+                .build();
+    }
+}
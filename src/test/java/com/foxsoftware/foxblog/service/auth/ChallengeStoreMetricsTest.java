@@ -0,0 +1,25 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChallengeStoreMetricsTest {
+
+    @Test
+    void rejectWarnsAtMostOncePerInterval() {
+        ChallengeStoreMetrics metrics = new ChallengeStoreMetrics(new SimpleMeterRegistry(), "memory",
+                new InMemoryChallengeStore(1, new SimpleMeterRegistry()));
+        long now = System.nanoTime();
+
+        assertThat(metrics.reject(now)).isTrue();
+        for (int i = 1; i < 1000; i++) {
+            assertThat(metrics.reject(now + i)).isFalse();
+        }
+        assertThat(metrics.reject(now + TimeUnit.SECONDS.toNanos(61))).isTrue();
+        assertThat(metrics.rejected.sum()).isEqualTo(1001);
+    }
+}
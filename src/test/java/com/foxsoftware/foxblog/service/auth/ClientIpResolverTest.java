@@ -0,0 +1,34 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("127.0.0.1", " ::1 "));
+
+    @Test
+    void trustsHeaderOnlyFromConfiguredProxy() {
+        assertThat(resolver.resolve(request("127.0.0.1", "203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(request("::1", "203.0.113.8"))).isEqualTo("203.0.113.8");
+        // 直连客户端自带的请求头不可信
+        assertThat(resolver.resolve(request("198.51.100.2", "203.0.113.7"))).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    void missingHeaderFallsBackToRemoteAddress() {
+        assertThat(resolver.resolve(request("127.0.0.1", null))).isEqualTo("127.0.0.1");
+        assertThat(resolver.resolve(request("198.51.100.2", " "))).isEqualTo("198.51.100.2");
+    }
+
+    private static MockHttpServletRequest request(String remote, String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/login");
+        request.setRemoteAddr(remote);
+        if (header != null) request.addHeader(ClientIpResolver.HEADER, header);
+        return request;
+    }
+}
@@ -0,0 +1,70 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import com.foxsoftware.foxblog.repository.AuthChallengeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 两个 DatabaseChallengeStore 实例共用真实的 auth_challenge 表并发计次，默认不运行（需要已建表的 MySQL）：
+ *   mvn test -Dtest=DatabaseChallengeStoreMySqlTest -Dfoxblog.it=true \
+ *       -Dspring.datasource.url=jdbc:mysql://... -Dspring.datasource.username=... -Dspring.datasource.password=...
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "foxblog.it", matches = "true")
+class DatabaseChallengeStoreMySqlTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private AuthChallengeRepository repository;
+
+    @Test
+    void attemptsAreBoundedAcrossInstancesSharingTheTable() throws Exception {
+        DatabaseChallengeStore a = new DatabaseChallengeStore(repository, 10_000, 500, 5_000, new SimpleMeterRegistry());
+        DatabaseChallengeStore b = new DatabaseChallengeStore(repository, 10_000, 500, 5_000, new SimpleMeterRegistry());
+        Instant now = Instant.now();
+        UUID id = UUID.randomUUID();
+        assertThat(a.offer(LoginChallenge.login(id, 1L, now, now.plusSeconds(300), "127.0.0.1"))).isTrue();
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                DatabaseChallengeStore s = i % 2 == 0 ? a : b;
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (s.recordAttempt(id, MAX_ATTEMPTS) >= 0) accepted.incrementAndGet();
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(accepted.get()).isEqualTo(MAX_ATTEMPTS);
+            assertThat(repository.findAttempts(id)).isEqualTo(MAX_ATTEMPTS);
+        } finally {
+            pool.shutdownNow();
+            a.remove(id);
+        }
+    }
+}
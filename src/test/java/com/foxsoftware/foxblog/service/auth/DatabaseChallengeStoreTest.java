@@ -0,0 +1,96 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import com.foxsoftware.foxblog.repository.AuthChallengeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseChallengeStoreTest {
+
+    private static final int CAPACITY = 3;
+    private static final int BATCH = 500;
+
+    private final AuthChallengeRepository repository = mock(AuthChallengeRepository.class);
+
+    private DatabaseChallengeStore store(long countRefreshMillis) {
+        return new DatabaseChallengeStore(repository, CAPACITY, BATCH, countRefreshMillis, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void recordAttemptReturnsRemainingAttempts() {
+        UUID id = UUID.randomUUID();
+        when(repository.incrementAttempts(id, 5)).thenReturn(1);
+        when(repository.findAttempts(id)).thenReturn(2);
+
+        assertThat(store(60_000).recordAttempt(id, 5)).isEqualTo(3);
+    }
+
+    @Test
+    void recordAttemptIsNegativeWhenExhaustedOrMissing() {
+        UUID id = UUID.randomUUID();
+        when(repository.incrementAttempts(id, 5)).thenReturn(0);
+
+        assertThat(store(60_000).recordAttempt(id, 5)).isNegative();
+        verify(repository, never()).findAttempts(any());
+    }
+
+    @Test
+    void recordAttemptAfterConcurrentDeleteLeavesNoAttempts() {
+        UUID id = UUID.randomUUID();
+        when(repository.incrementAttempts(id, 5)).thenReturn(1);
+        when(repository.findAttempts(id)).thenReturn(null);
+
+        assertThat(store(60_000).recordAttempt(id, 5)).isZero();
+    }
+
+    @Test
+    void sweepDeletesInBatchesUntilShortBatch() {
+        when(repository.deleteExpiredBatch(any(), eq(BATCH))).thenReturn(BATCH, BATCH, 7);
+
+        assertThat(store(60_000).sweepExpired(Instant.now())).isEqualTo(2 * BATCH + 7);
+        verify(repository, times(3)).deleteExpiredBatch(any(), eq(BATCH));
+    }
+
+    @Test
+    void offerCountsOncePerRefreshWindow() {
+        when(repository.countUpTo(CAPACITY)).thenReturn(0L);
+        DatabaseChallengeStore store = store(60_000);
+
+        assertThat(store.offer(challenge())).isTrue();
+        assertThat(store.offer(challenge())).isTrue();
+
+        verify(repository, times(1)).countUpTo(CAPACITY);
+        verify(repository, never()).count();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void offerSweepsAndRejectsWhenFull() {
+        when(repository.countUpTo(CAPACITY)).thenReturn((long) CAPACITY);
+        DatabaseChallengeStore store = store(60_000);
+
+        assertThat(store.offer(challenge())).isFalse();
+
+        verify(repository).deleteExpiredBatch(any(), eq(BATCH));
+        verify(repository, never()).insert(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void offerAcceptsWhenSweepFreesCapacity() {
+        when(repository.countUpTo(CAPACITY)).thenReturn((long) CAPACITY, 1L);
+        when(repository.deleteExpiredBatch(any(), eq(BATCH))).thenReturn(2);
+
+        assertThat(store(60_000).offer(challenge())).isTrue();
+    }
+
+    private static LoginChallenge challenge() {
+        Instant now = Instant.now();
+        return LoginChallenge.login(UUID.randomUUID(), 1L, now, now.plusSeconds(300), "127.0.0.1");
+    }
+}
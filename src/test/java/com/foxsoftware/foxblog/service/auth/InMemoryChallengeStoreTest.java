@@ -0,0 +1,113 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryChallengeStoreTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private static InMemoryChallengeStore store(int capacity) {
+        return new InMemoryChallengeStore(capacity, new SimpleMeterRegistry());
+    }
+
+    private static LoginChallenge challenge(Instant expireAt) {
+        return LoginChallenge.login(UUID.randomUUID(), 1L, NOW, expireAt, "127.0.0.1");
+    }
+
+    @Test
+    void offerGetRemove() {
+        InMemoryChallengeStore store = store(10);
+        LoginChallenge c = challenge(NOW.plusSeconds(60));
+
+        assertThat(store.offer(c)).isTrue();
+        assertThat(store.get(c.getId())).isSameAs(c);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.remove(c.getId())).isTrue();
+        assertThat(store.remove(c.getId())).isFalse();
+        assertThat(store.get(c.getId())).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void recordAttemptCountsDownToExhaustion() {
+        InMemoryChallengeStore store = store(10);
+        LoginChallenge c = challenge(NOW.plusSeconds(60));
+        store.offer(c);
+
+        assertThat(store.recordAttempt(c.getId(), 3)).isEqualTo(2);
+        assertThat(store.recordAttempt(c.getId(), 3)).isEqualTo(1);
+        assertThat(store.recordAttempt(c.getId(), 3)).isZero();
+        assertThat(store.recordAttempt(c.getId(), 3)).isNegative();
+        assertThat(store.recordAttempt(UUID.randomUUID(), 3)).isNegative();
+    }
+
+    @Test
+    void sweepRemovesOnlyExpiredEntries() {
+        InMemoryChallengeStore store = store(10);
+        LoginChallenge expired1 = challenge(NOW.minusSeconds(20));
+        LoginChallenge expired2 = challenge(NOW.minusSeconds(10));
+        LoginChallenge live = challenge(NOW.plusSeconds(60));
+        store.offer(live);
+        store.offer(expired2);
+        store.offer(expired1);
+
+        assertThat(store.sweepExpired(NOW)).isEqualTo(2);
+        assertThat(store.get(live.getId())).isSameAs(live);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.sweepExpired(NOW)).isZero();
+    }
+
+    @Test
+    void fullStoreSweepsExpiredBeforeRejecting() {
+        InMemoryChallengeStore store = store(2);
+        store.offer(challenge(NOW.minusSeconds(1)));
+        store.offer(challenge(NOW.plusSeconds(60)));
+
+        // 过期条目被清理后有空位
+        assertThat(store.offer(challenge(NOW.plusSeconds(60)))).isTrue();
+        // 全部未过期时拒绝
+        assertThat(store.offer(challenge(NOW.plusSeconds(60)))).isFalse();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removeAndSweepRaceReleasesCapacityOnce() {
+        InMemoryChallengeStore store = store(1);
+        LoginChallenge c = challenge(NOW.minusSeconds(1));
+        store.offer(c);
+
+        assertThat(store.remove(c.getId())).isTrue();
+        assertThat(store.sweepExpired(NOW)).isZero();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void concurrentOffersNeverExceedCapacity() throws Exception {
+        int capacity = 50;
+        InMemoryChallengeStore store = store(capacity);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                pool.execute(() -> {
+                    if (store.offer(challenge(NOW.plusSeconds(60)))) accepted.incrementAndGet();
+                });
+            }
+        } finally {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(accepted.get()).isEqualTo(capacity);
+        assertThat(store.size()).isEqualTo(capacity);
+    }
+}
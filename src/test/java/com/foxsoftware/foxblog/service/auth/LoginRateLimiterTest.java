@@ -0,0 +1,91 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    /** 每个 IP / 用户：突发 3 次，每秒补 1 个令牌 */
+    private LoginRateLimiter limiter(int maxKeys) {
+        return new LoginRateLimiter(true, 3, 60, 3, 60, maxKeys, registry);
+    }
+
+    @Test
+    void burstThenWaitForRefill() {
+        LoginRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("1.1.1.1", "alice", 0)).isZero();
+        }
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 0)).isEqualTo(1);
+        // 半个令牌仍不够，建议等待向上取整为 1 秒
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 500)).isEqualTo(1);
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 1000)).isZero();
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 1000)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotResetRefill() {
+        LoginRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("1.1.1.1", "alice", 0);
+        for (int t = 100; t < 1000; t += 100) {
+            assertThat(limiter.tryAcquire("1.1.1.1", "alice", t)).isPositive();
+        }
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 1000)).isZero();
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        LoginRateLimiter limiter = limiter(100);
+        limiter.tryAcquire("1.1.1.1", "alice", 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("1.1.1.1", "alice", 60_000)).isZero();
+        }
+        assertThat(limiter.tryAcquire("1.1.1.1", "alice", 60_000)).isPositive();
+    }
+
+    @Test
+    void usernameLimitIsCaseInsensitiveAcrossIps() {
+        LoginRateLimiter limiter = limiter(100);
+        assertThat(limiter.tryAcquire("1.1.1.1", "Alice", 0)).isZero();
+        assertThat(limiter.tryAcquire("2.2.2.2", "ALICE", 0)).isZero();
+        assertThat(limiter.tryAcquire("3.3.3.3", "alice", 0)).isZero();
+        assertThat(limiter.tryAcquire("4.4.4.4", "alice", 0)).isPositive();
+        assertThat(limiter.tryAcquire("4.4.4.4", "bob", 0)).isZero();
+    }
+
+    @Test
+    void disabledLimiterAlwaysAllows() {
+        LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1, 1, registry);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("1.1.1.1", "alice", 0)).isZero();
+        }
+    }
+
+    @Test
+    void fullTableEvictsIdleKeysOnDemand() {
+        LoginRateLimiter limiter = limiter(2);
+        limiter.tryAcquire("1.1.1.1", "alice", 0);
+        limiter.tryAcquire("2.2.2.2", "bob", 0);
+        // 已补满的键被就地清理，新键拿到自己的桶而不是溢出桶
+        assertThat(limiter.tryAcquire("3.3.3.3", "carol", 10_000)).isZero();
+        assertThat(registry.get("auth.login.rate-limit.keys").tag("key", "ip").gauge().value()).isEqualTo(1);
+        assertThat(limiter.evictIdle(20_000)).isEqualTo(2);
+    }
+
+    @Test
+    void overflowBucketDoesNotLockOutNewKeys() {
+        LoginRateLimiter limiter = limiter(1);
+        // 唯一的键位被一个持续失败的 IP / 用户占住（未补满，不会被清理）
+        for (int i = 0; i < 3; i++) limiter.tryAcquire("6.6.6.6", "mallory", 0);
+        // 后续新键共用溢出桶，容量是单键的数十倍，不会在几次尝试后全部被拒绝
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire("10.0.0." + i, "user" + i, 0)).isZero();
+        }
+        assertThat(limiter.tryAcquire("6.6.6.6", "mallory", 0)).isPositive();
+    }
+}
@@ -0,0 +1,89 @@
+package com.foxsoftware.foxblog.service.auth;
+
+import com.foxsoftware.foxblog.service.AdminAuthService.AuthException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashExecutorTest {
+
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashExecutor executor;
+
+    private PasswordHashExecutor executor(int queueCapacity, long timeoutMs) {
+        executor = new PasswordHashExecutor(encoder, new SimpleMeterRegistry());
+        // 单线程
+        ReflectionTestUtils.setField(executor, "cpuFraction", 0.0);
+        ReflectionTestUtils.setField(executor, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(executor, "timeoutMs", timeoutMs);
+        executor.init();
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) executor.shutdown();
+    }
+
+    @Test
+    void returnsEncoderResult() {
+        when(encoder.matches("right", "hash")).thenReturn(true);
+        PasswordHashExecutor executor = executor(4, 5000);
+        assertThat(executor.matches("right", "hash")).isTrue();
+        assertThat(executor.matches("wrong", "hash")).isFalse();
+    }
+
+    @Test
+    void timeoutIsBusy() {
+        when(encoder.matches(any(), eq("hash"))).thenAnswer(inv -> {
+            release.await();
+            return true;
+        });
+        PasswordHashExecutor executor = executor(4, 50);
+        assertThatThrownBy(() -> executor.matches("pw", "hash"))
+                .isInstanceOfSatisfying(AuthException.class, e -> assertThat(e.getCode()).isEqualTo("AUTH_BUSY"));
+    }
+
+    @Test
+    void fullQueueIsBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(encoder.matches(any(), eq("slow"))).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        PasswordHashExecutor executor = executor(1, 5000);
+        Thread running = new Thread(() -> executor.matches("pw", "slow"));
+        running.start();
+        started.await();
+        Thread queued = new Thread(() -> executor.matches("pw", "slow"));
+        queued.start();
+        while (queuedSize(executor) == 0) Thread.onSpinWait();
+
+        assertThatThrownBy(() -> executor.matches("pw", "slow"))
+                .isInstanceOfSatisfying(AuthException.class, e -> assertThat(e.getCode()).isEqualTo("AUTH_BUSY"));
+        release.countDown();
+        running.join();
+        queued.join();
+    }
+
+    private static int queuedSize(PasswordHashExecutor executor) {
+        ThreadPoolExecutor pool =
+                (ThreadPoolExecutor) ReflectionTestUtils.getField(executor, "executor");
+        return pool.getQueue().size();
+    }
+}
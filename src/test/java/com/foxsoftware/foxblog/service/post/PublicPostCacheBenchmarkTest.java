@@ -0,0 +1,65 @@
+package com.foxsoftware.foxblog.service.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foxsoftware.foxblog.dto.post.PostDetailResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 公开帖子缓存命中与未命中（序列化 + gzip）的粗略耗时（ns/op），默认不运行：
+ *   mvn test -Dtest=PublicPostCacheBenchmarkTest -Dfoxblog.bench=true
+ * 未命中不含数据库查询，只是缓存省下的 CPU 部分
+ */
+@EnabledIfSystemProperty(named = "foxblog.bench", matches = "true")
+class PublicPostCacheBenchmarkTest {
+
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void hitVersusRebuild() {
+        PostService postService = mock(PostService.class);
+        PostDetailResponse detail = PostDetailResponse.builder()
+                .id(1L)
+                .title("benchmark")
+                .content("正文内容 lorem ipsum ".repeat(200))
+                .contentHtml("<p>正文内容 lorem ipsum</p>".repeat(200))
+                .visibility("PUBLIC")
+                .pinned(false)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .tags(Set.of("java", "spring"))
+                .build();
+        when(postService.findDetail(anyLong(), eq(false))).thenReturn(detail);
+        PublicPostCache cache = new PublicPostCache(postService, new ObjectMapper().findAndRegisterModules(),
+                true, 2000, 300, 512, new SimpleMeterRegistry());
+
+        cache.detail(1L);
+        double hitNs = measure(() -> cache.detail(1L));
+        // 每次推进版本，迫使重新序列化与压缩
+        PostChangedEvent changed = PostChangedEvent.of(1L);
+        double rebuildNs = measure(() -> {
+            cache.onPostChanged(changed);
+            return cache.detail(1L);
+        });
+
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "public cache hit", hitNs);
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "public cache rebuild (json + gzip)", rebuildNs);
+    }
+
+    private static double measure(Supplier<?> op) {
+        for (int i = 0; i < ITERATIONS / 10; i++) op.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.get();
+        return (double) (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,145 @@
+package com.foxsoftware.foxblog.service.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foxsoftware.foxblog.dto.post.PostDetailResponse;
+import com.foxsoftware.foxblog.dto.post.PostListItemResponse;
+import com.foxsoftware.foxblog.service.post.PublicPostCache.CachedJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PublicPostCacheTest {
+
+    private final PostService postService = mock(PostService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private PublicPostCache cache(boolean enabled, int maxEntries) {
+        return new PublicPostCache(postService, objectMapper, enabled, maxEntries, 300, 512, new SimpleMeterRegistry());
+    }
+
+    private static PostDetailResponse post(long id, String content) {
+        return PostDetailResponse.builder().id(id).title("t" + id).content(content).visibility("PUBLIC").build();
+    }
+
+    private void stubPosts() {
+        when(postService.findDetail(anyLong(), eq(false))).thenAnswer(inv -> post(inv.getArgument(0), "body"));
+        when(postService.listPublic(any(), any(), any())).thenAnswer(inv -> new PageImpl<>(List.of(
+                PostListItemResponse.builder().id(1L).title("t1").visibility("PUBLIC").build()),
+                inv.<Pageable>getArgument(0), 1));
+    }
+
+    @Test
+    void detailIsServedFromCacheUntilPostChanges() {
+        stubPosts();
+        PublicPostCache cache = cache(true, 100);
+
+        CachedJson first = cache.detail(1L);
+        assertThat(cache.detail(1L)).isSameAs(first);
+        verify(postService, times(1)).findDetail(1L, false);
+
+        cache.onPostChanged(PostChangedEvent.of(1L));
+        assertThat(cache.detail(1L)).isNotSameAs(first);
+        verify(postService, times(2)).findDetail(1L, false);
+    }
+
+    @Test
+    void postChangeInvalidatesListingsButNotOtherPosts() {
+        stubPosts();
+        PublicPostCache cache = cache(true, 100);
+        CachedJson list = cache.list(0, 20, null, null);
+        CachedJson other = cache.detail(2L);
+
+        cache.onPostChanged(PostChangedEvent.of(1L));
+
+        assertThat(cache.list(0, 20, null, null)).isNotSameAs(list);
+        assertThat(cache.detail(2L)).isSameAs(other);
+    }
+
+    @Test
+    void globalChangeInvalidatesEverything() {
+        stubPosts();
+        PublicPostCache cache = cache(true, 100);
+        CachedJson detail = cache.detail(2L);
+        CachedJson list = cache.list(0, 20, "java", null);
+
+        cache.onPostChanged(PostChangedEvent.all());
+
+        assertThat(cache.detail(2L)).isNotSameAs(detail);
+        assertThat(cache.list(0, 20, "java", null)).isNotSameAs(list);
+    }
+
+    @Test
+    void changeDuringLoadDoesNotLeaveStaleEntry() {
+        PublicPostCache cache = cache(true, 100);
+        when(postService.findDetail(1L, false))
+                .thenAnswer(inv -> {
+                    // 加载期间帖子被修改：写入的条目带旧版本，下次读取必须重新加载
+                    cache.onPostChanged(PostChangedEvent.of(1L));
+                    return post(1L, "old");
+                })
+                .thenReturn(post(1L, "new"));
+
+        cache.detail(1L);
+        CachedJson reloaded = cache.detail(1L);
+
+        assertThat(new String(reloaded.json())).contains("new");
+        assertThat(cache.detail(1L)).isSameAs(reloaded);
+        verify(postService, times(2)).findDetail(1L, false);
+    }
+
+    @Test
+    void keywordSearchBypassesCache() {
+        stubPosts();
+        PublicPostCache cache = cache(true, 100);
+        cache.list(0, 20, null, "foo");
+        cache.list(0, 20, null, "foo");
+        verify(postService, times(2)).listPublic(any(), isNull(), eq("foo"));
+    }
+
+    @Test
+    void largeBodiesCarryGzipCopy() throws Exception {
+        when(postService.findDetail(1L, false)).thenReturn(post(1L, "x".repeat(4096)));
+        when(postService.findDetail(2L, false)).thenReturn(post(2L, "short"));
+        PublicPostCache cache = cache(true, 100);
+
+        CachedJson large = cache.detail(1L);
+        assertThat(large.hasGzip()).isTrue();
+        assertThat(large.gzip().length).isLessThan(large.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(large.json());
+        }
+        assertThat(cache.detail(2L).hasGzip()).isFalse();
+    }
+
+    @Test
+    void entryCountIsBounded() {
+        stubPosts();
+        PublicPostCache cache = cache(true, 3);
+        for (long id = 1; id <= 10; id++) cache.detail(id);
+
+        CachedJson latest = cache.detail(10L);
+        assertThat(cache.detail(10L)).isSameAs(latest);
+        verify(postService, times(1)).findDetail(10L, false);
+        // 最早的条目已被淘汰
+        cache.detail(1L);
+        verify(postService, times(2)).findDetail(1L, false);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        stubPosts();
+        PublicPostCache cache = cache(false, 100);
+        cache.detail(1L);
+        cache.detail(1L);
+        verify(postService, times(2)).findDetail(1L, false);
+    }
+}
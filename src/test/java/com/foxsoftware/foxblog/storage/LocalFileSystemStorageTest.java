@@ -0,0 +1,57 @@
+package com.foxsoftware.foxblog.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalFileSystemStorageTest {
+
+    private static final String SHA = "ab" + "0".repeat(62);
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void reusedBlobSurvivesOrphanDelete() throws Exception {
+        LocalFileSystemStorage storage = new LocalFileSystemStorage(tmp.toString(), MediaLayout.CAS);
+        String rel = storage.storeContent(SHA, "a.jpg", new byte[]{1, 2, 3});
+        Path file = storage.resolve(rel);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Instant cutoff = Instant.now().minus(Duration.ofHours(24));
+
+        // 孤儿记录已删、新上传命中同一文件：刷新修改时间后清理不再删除
+        assertThat(storage.storeContent(SHA, "b.jpg", new byte[]{1, 2, 3})).isEqualTo(rel);
+        assertThat(storage.deleteIfOlderThan(rel, cutoff)).isFalse();
+        assertThat(file).exists();
+    }
+
+    @Test
+    void staleBlobIsDeleted() throws Exception {
+        LocalFileSystemStorage storage = new LocalFileSystemStorage(tmp.toString(), MediaLayout.CAS);
+        String rel = storage.storeContent(SHA, "a.jpg", new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(storage.resolve(rel), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        assertThat(storage.deleteIfOlderThan(rel, Instant.now().minus(Duration.ofHours(24)))).isTrue();
+        assertThat(storage.resolve(rel)).doesNotExist();
+        assertThat(storage.deleteIfOlderThan(rel, Instant.now())).isFalse();
+    }
+
+    @Test
+    void storeFileTouchesExistingBlobAndConsumesSource() throws Exception {
+        LocalFileSystemStorage storage = new LocalFileSystemStorage(tmp.resolve("root").toString(), MediaLayout.CAS);
+        String rel = storage.storeContent(SHA, "a.jpg", new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(storage.resolve(rel), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path upload = Files.write(tmp.resolve("upload.bin"), new byte[]{1, 2, 3});
+
+        assertThat(storage.storeFile(SHA, "a.jpg", upload)).isEqualTo(rel);
+        assertThat(upload).doesNotExist();
+        assertThat(storage.deleteIfOlderThan(rel, Instant.now().minus(Duration.ofHours(24)))).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package com.foxsoftware.foxblog.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredMediaStorageTest {
+
+    private static final int FILE_SIZE = 100;
+    private static final long MAX_BYTES = 1000;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void leasedCacheFilesAreNotEvicted() throws Exception {
+        MediaStorage backing = new LocalFileSystemStorage(tmp.resolve("root").toString(), MediaLayout.DATED);
+        TieredMediaStorage tiered = tiered(backing, 60);
+        try {
+            List<Path> resolved = resolveAll(tiered, storeFiles(backing, 12));
+            // 超出上限，但全部在读租约内：返回的路径都仍然可读
+            assertThat(resolved).allMatch(Files::exists);
+        } finally {
+            tiered.close();
+        }
+    }
+
+    @Test
+    void expiredLeasesAreEvictedOldestFirst() throws Exception {
+        MediaStorage backing = new LocalFileSystemStorage(tmp.resolve("root").toString(), MediaLayout.DATED);
+        TieredMediaStorage tiered = tiered(backing, 0);
+        try {
+            List<Path> resolved = resolveAll(tiered, storeFiles(backing, 12));
+            assertThat(resolved.get(0)).doesNotExist();
+            assertThat(resolved.get(resolved.size() - 1)).exists();
+            assertThat(resolved.stream().filter(Files::exists).count()).isEqualTo(MAX_BYTES / FILE_SIZE);
+        } finally {
+            tiered.close();
+        }
+    }
+
+    private TieredMediaStorage tiered(MediaStorage backing, long leaseSeconds) {
+        MediaStorage cache = new LocalFileSystemStorage(tmp.resolve("cache").toString(), MediaLayout.DATED);
+        TieredMediaStorage tiered = new TieredMediaStorage(cache, backing, MAX_BYTES, 1, 10, leaseSeconds);
+        tiered.init();
+        return tiered;
+    }
+
+    private static List<String> storeFiles(MediaStorage backing, int count) {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            paths.add(backing.store("2025-01-01", "f" + i + ".bin", new byte[FILE_SIZE]));
+        }
+        return paths;
+    }
+
+    private static List<Path> resolveAll(TieredMediaStorage tiered, List<String> paths) {
+        List<Path> resolved = new ArrayList<>();
+        for (String p : paths) {
+            resolved.add(tiered.resolve(p));
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,110 @@
+package com.foxsoftware.foxblog.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * TOTP 校验的粗略耗时（ns/op），默认不运行：
+ *   mvn test -Dtest=TotpBenchmarkTest -Dfoxblog.bench=true
+ * 对比改造前的实现（每步解码密钥、新建 Mac、格式化字符串）与当前实现；
+ * 虚拟线程一项每次校验都在新的虚拟线程上执行，对应开启虚拟线程后的请求线程模型
+ */
+@EnabledIfSystemProperty(named = "foxblog.bench", matches = "true")
+class TotpBenchmarkTest {
+
+    private static final int ITERATIONS = 100_000;
+    private static final int THREAD_ITERATIONS = 20_000;
+
+    @Test
+    void legacyVersusCurrent() throws Exception {
+        String secret = TotpUtils.generateBase32Secret(20);
+        // 固定一个错误的验证码：两种实现都会算满 3 个漂移步
+        String code = "000000";
+
+        double legacyNs = measure(ITERATIONS, () -> legacyValidate(secret, code, 1));
+        double currentNs = measure(ITERATIONS, () -> TotpUtils.validateCode(secret, code, 1));
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "totp validate (legacy)", legacyNs);
+        System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "totp validate (current)", currentNs);
+
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            double virtualNs = measure(THREAD_ITERATIONS, () -> {
+                Future<Boolean> f = virtual.submit(() -> TotpUtils.validateCode(secret, code, 1));
+                try {
+                    return f.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            // 对照：只有派发到新虚拟线程并等待的开销
+            double handoffNs = measure(THREAD_ITERATIONS, () -> {
+                try {
+                    return virtual.submit(() -> true).get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "totp validate (current, new vthread)", virtualNs);
+            System.out.printf("[BENCH] %-36s %,12.0f ns/op%n", "new vthread handoff only", handoffNs);
+        }
+    }
+
+    /**
+     * 先预热同样次数，再计时
+     */
+    private static double measure(int iterations, BooleanSupplier op) {
+        for (int i = 0; i < iterations; i++) op.getAsBoolean();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) op.getAsBoolean();
+        return (double) (System.nanoTime() - start) / iterations;
+    }
+
+    // ===== 改造前的实现（仅供对比） =====
+
+    private static boolean legacyValidate(String base32Secret, String code, int allowedDriftSteps) {
+        if (base32Secret == null || base32Secret.isBlank()) return false;
+        if (code == null || !code.matches("\\d{6}")) return false;
+        long timeStep = Instant.now().getEpochSecond() / 30;
+        try {
+            for (long step = timeStep - allowedDriftSteps; step <= timeStep + allowedDriftSteps; step++) {
+                if (constantTimeEquals(legacyTotp(base32Secret, step), code)) return true;
+            }
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String legacyTotp(String base32Secret, long timeStep) throws Exception {
+        byte[] key = TotpUtils.base32Decode(base32Secret);
+        byte[] msg = ByteBuffer.allocate(8).putLong(timeStep).array();
+        Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec(key, "HmacSHA1"));
+        byte[] hash = mac.doFinal(msg);
+        int offset = hash[hash.length - 1] & 0x0F;
+        int binary = ((hash[offset] & 0x7F) << 24) |
+                ((hash[offset + 1] & 0xFF) << 16) |
+                ((hash[offset + 2] & 0xFF) << 8) |
+                (hash[offset + 3] & 0xFF);
+        int otp = binary % (int) Math.pow(10, 6);
+        return String.format(Locale.US, "%06d", otp);
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        if (a.length() != b.length()) return false;
+        int r = 0;
+        for (int i = 0; i < a.length(); i++) {
+            r |= a.charAt(i) ^ b.charAt(i);
+        }
+        return r == 0;
+    }
+}
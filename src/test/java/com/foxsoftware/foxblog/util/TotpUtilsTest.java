@@ -0,0 +1,65 @@
+package com.foxsoftware.foxblog.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TotpUtilsTest {
+
+    // RFC 6238 附录 B 的 SHA-1 种子
+    private static final SecretKeySpec RFC_KEY =
+            new SecretKeySpec("12345678901234567890".getBytes(StandardCharsets.US_ASCII), "HmacSHA1");
+
+    @Test
+    void matchesRfc6238Sha1Vectors() throws Exception {
+        // 附录 B 给出 8 位结果，6 位验证码取其低 6 位
+        long[][] vectors = {
+                {59L, 94287082L},
+                {1111111109L, 7081804L},
+                {1111111111L, 14050471L},
+                {1234567890L, 89005924L},
+                {2000000000L, 69279037L},
+                {20000000000L, 65353130L},
+        };
+        for (long[] v : vectors) {
+            int code = TotpUtils.generateCode(RFC_KEY, TotpUtils.timeStep(v[0]));
+            assertThat(code).as("T=%d", v[0]).isEqualTo((int) (v[1] % 1_000_000));
+        }
+    }
+
+    @Test
+    void acceptsCodesWithinDriftWindow() {
+        long step = TotpUtils.timeStep(1111111111L);
+        assertThat(TotpUtils.validateCode(RFC_KEY, "050471", 0, step)).isTrue();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "050471", 1, step - 1)).isTrue();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "050471", 1, step + 1)).isTrue();
+    }
+
+    @Test
+    void rejectsCodesOutsideDriftWindow() {
+        long step = TotpUtils.timeStep(1111111111L);
+        assertThat(TotpUtils.validateCode(RFC_KEY, "050471", 0, step - 1)).isFalse();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "050471", 1, step + 2)).isFalse();
+    }
+
+    @Test
+    void keepsLeadingZeros() {
+        // T=1111111109 的 6 位验证码为 081804
+        long step = TotpUtils.timeStep(1111111109L);
+        assertThat(TotpUtils.validateCode(RFC_KEY, "081804", 0, step)).isTrue();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "81804", 0, step)).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        long step = TotpUtils.timeStep(59L);
+        assertThat(TotpUtils.validateCode(RFC_KEY, null, 1, step)).isFalse();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "28708a", 1, step)).isFalse();
+        assertThat(TotpUtils.validateCode(RFC_KEY, "2870820", 1, step)).isFalse();
+        assertThat(TotpUtils.validateCode(null, "287082", 1)).isFalse();
+        assertThat(TotpUtils.validateCode("!!!", "287082", 1)).isFalse();
+    }
+}